@@ -0,0 +1,94 @@
+package com.TransactFlow.TransactFlow.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private static final int CHURN_KEYS = 200_000;
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private static final BucketConfiguration UNLIMITED = BucketConfiguration.builder()
+            .addLimit(Bandwidth.builder().capacity(1_000_000_000L).refillGreedy(1_000_000_000L, Duration.ofSeconds(1)).build())
+            .build();
+
+    private RateLimitFilter allowingFilter;
+    private RateLimitFilter limitingFilter;
+    private RateLimitBucketStore store;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        store = new InMemoryRateLimitBucketStore(100_000, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+        // Capacity no benchmark can exhaust, so every call takes the allow path
+        allowingFilter = new RateLimitFilter(store, new RateLimitConfig(10, Duration.ofMinutes(1), 5, Duration.ofMinutes(1)) {
+            @Override
+            public BucketConfiguration transactionBucketConfiguration() {
+                return UNLIMITED;
+            }
+        }, objectMapper);
+        limitingFilter = new RateLimitFilter(new InMemoryRateLimitBucketStore(100_000, Duration.ofMinutes(10),
+                new SimpleMeterRegistry()), new RateLimitConfig(10, Duration.ofMinutes(1), 5, Duration.ofMinutes(1)), objectMapper);
+
+        request = new MockHttpServletRequest("GET", "/api/transactions/balance");
+        request.setRemoteAddr("203.0.113.7");
+
+        // Spend the real ten-per-minute allowance up front; every measured call is then a 429
+        for (int i = 0; i < 10; i++) {
+            limitingFilter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public MockHttpServletResponse allowed() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        allowingFilter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse rejected() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        limitingFilter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    // Distinct client keys: bucket creation plus cache admission and eviction
+    @Benchmark
+    public Bucket resolveChurn() {
+        String key = "ip:" + ThreadLocalRandom.current().nextInt(CHURN_KEYS);
+        return store.resolve(key, () -> UNLIMITED);
+    }
+}
@@ -0,0 +1,80 @@
+package com.TransactFlow.TransactFlow.data.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// The arithmetic of one transfer (limit checks, debit guard, before/after snapshots) done the old BigDecimal way
+// and with Money. Run with -prof gc to compare allocation per operation as well as time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final BigDecimal MIN = new BigDecimal("0.01");
+    private static final BigDecimal MAX = new BigDecimal("100000.00");
+
+    private BigDecimal amount;
+    private BigDecimal senderBalance;
+    private BigDecimal receiverBalance;
+
+    private Money senderMoney;
+    private Money receiverMoney;
+
+    @Setup
+    public void setUp() {
+        amount = new BigDecimal("125.50");
+        senderBalance = new BigDecimal("1000.00");
+        receiverBalance = new BigDecimal("50.00");
+        senderMoney = Money.of(senderBalance);
+        receiverMoney = Money.of(receiverBalance);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalTransfer() {
+        if (amount.compareTo(MIN) < 0 || amount.compareTo(MAX) > 0 || senderBalance.compareTo(amount) < 0) {
+            throw new IllegalStateException();
+        }
+        BigDecimal senderAfter = senderBalance.subtract(amount);
+        BigDecimal receiverAfter = receiverBalance.add(amount);
+        return senderAfter.add(receiverAfter);
+    }
+
+    @Benchmark
+    public Money moneyTransfer() {
+        long minorUnits = Money.minorUnitsOf(amount);
+        if (minorUnits < 1 || minorUnits > 10_000_000) {
+            throw new IllegalStateException();
+        }
+        Money transfer = Money.ofMinor(minorUnits);
+        if (senderMoney.isLessThan(transfer)) {
+            throw new IllegalStateException();
+        }
+        Money senderAfter = senderMoney.minus(transfer);
+        Money receiverAfter = receiverMoney.plus(transfer);
+        return senderAfter.plus(receiverAfter);
+    }
+
+    @Benchmark
+    public long parseMinorUnits() {
+        return Money.minorUnitsOf(amount);
+    }
+
+    @Benchmark
+    public BigDecimal toBigDecimal() {
+        return senderMoney.toBigDecimal();
+    }
+}
@@ -0,0 +1,77 @@
+package com.TransactFlow.TransactFlow.dtos;
+
+import com.TransactFlow.TransactFlow.data.model.TransactionStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionHistoryDtoSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectMapper objectMapper;
+    private TransactionHistoryDto item;
+    private TransactionPageDto page;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the mapper Spring Boot hands to the controllers
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        item = historyItem(0);
+        List<TransactionHistoryDto> items = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            items.add(historyItem(i));
+        }
+        page = TransactionPageDto.builder()
+                .items(items)
+                .nextCursor("MjAyNS0wNi0wMVQxMjowMHw2NWYxYzBmZmVlMDAwMDAwMDAwMGFiY2Q")
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeItem() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(item);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    private static TransactionHistoryDto historyItem(int i) {
+        return TransactionHistoryDto.builder()
+                .transactionId("65f1c0ffee0000000000ab" + String.format("%02d", i))
+                .referenceNumber("TXN00A1B2C3D4E5F6" + String.format("%02d", i))
+                .otherParty("receiver" + i + "@example.com")
+                .amount(new BigDecimal("125.50"))
+                .description("Rent share")
+                .balanceBefore(new BigDecimal("1000.00"))
+                .balanceAfter(new BigDecimal("874.50"))
+                .status(TransactionStatus.SUCCESS)
+                .timestamp(LocalDateTime.of(2025, 6, 1, 12, 0).plusMinutes(i))
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.TransactFlow.TransactFlow.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "MySecretKeyForJWTTokenGenerationMustBeAtLeast256BitsLongForHS256Algorithm";
+
+    private JwtUtil jwtUtil;
+
+    // Size-zero claims cache: every call pays the full signature check, as on a token's first request
+    private JwtUtil uncachedJwtUtil;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = jwtUtil(100_000);
+        uncachedJwtUtil = jwtUtil(0);
+        token = jwtUtil.generateToken("sender@example.com");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("sender@example.com");
+    }
+
+    @Benchmark
+    public Claims validateTokenCached() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public Claims validateTokenUncached() {
+        return uncachedJwtUtil.validateToken(token);
+    }
+
+    // Baseline: the filter's old path, extractEmail then validateToken(token, email), which parsed the token three
+    // times and derived the key and built a parser on each parse
+    @Benchmark
+    public boolean validateTokenThreeParses() {
+        String email = parseClaims(token).getSubject();
+        return parseClaims(token).getSubject().equals(email) && !parseClaims(token).getExpiration().before(new Date());
+    }
+
+    private static Claims parseClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static JwtUtil jwtUtil(long claimsCacheMaxSize) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(util, "claimsCacheMaxSize", claimsCacheMaxSize);
+        util.init();
+        return util;
+    }
+}
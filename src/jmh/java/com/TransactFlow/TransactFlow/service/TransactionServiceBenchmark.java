@@ -0,0 +1,74 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.LedgerEntry;
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.data.model.TransactionStatus;
+import com.TransactFlow.TransactFlow.dtos.TransactionHistoryDto;
+import com.TransactFlow.TransactFlow.dtos.request.TransferRequestDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    private TransactionService transactionService;
+    private TransferRequestDto request;
+    private LedgerEntry entry;
+
+    @Setup
+    public void setUp() {
+        // Validation and mapping touch none of the collaborators, but wire real ones so a new dependency cannot NPE here
+        transactionService = TransactionServiceFixture.builder().build().transactionService;
+
+        request = new TransferRequestDto();
+        request.setReceiverEmail("receiver@example.com");
+        request.setAmount(new BigDecimal("125.50"));
+        request.setDescription("Rent share");
+
+        Transaction transaction = Transaction.builder()
+                .id("65f1c0ffee0000000000abcd")
+                .senderEmail("sender@example.com")
+                .receiverEmail("receiver@example.com")
+                .amount(Money.ofMinor(12_550))
+                .description("Rent share")
+                .status(TransactionStatus.SUCCESS)
+                .referenceNumber("TXN00A1B2C3D4E5F607")
+                .senderBalanceBefore(Money.ofMinor(100_000))
+                .senderBalanceAfter(Money.ofMinor(87_450))
+                .receiverBalanceBefore(Money.ofMinor(5_000))
+                .receiverBalanceAfter(Money.ofMinor(17_550))
+                .createdAt(LocalDateTime.of(2025, 6, 1, 12, 0))
+                .build();
+        entry = LedgerEntry.forTransaction(transaction).get(0);
+    }
+
+    @Benchmark
+    public void validateTransferRequest(Blackhole blackhole) {
+        transactionService.validateTransferRequest("sender@example.com", request);
+        blackhole.consume(request);
+    }
+
+    @Benchmark
+    public TransactionHistoryDto mapToHistoryDto() {
+        return TransactionService.mapToHistoryDto(entry);
+    }
+}
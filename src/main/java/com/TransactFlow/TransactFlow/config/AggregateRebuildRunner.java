@@ -0,0 +1,23 @@
+package com.TransactFlow.TransactFlow.config;
+
+import com.TransactFlow.TransactFlow.service.TransferAggregateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// One-off repair: start a node with aggregates.rebuild-on-startup=true to recompute every day/month bucket
+// from the transactions, e.g. after first deploying aggregates or after an upsert failure was logged
+@Component
+@ConditionalOnProperty(name = "aggregates.rebuild-on-startup", havingValue = "true")
+@RequiredArgsConstructor
+public class AggregateRebuildRunner implements ApplicationRunner {
+
+    private final TransferAggregateService transferAggregateService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        transferAggregateService.rebuild();
+    }
+}
@@ -0,0 +1,34 @@
+package com.TransactFlow.TransactFlow.config;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// Per-node limits: each replica enforces the configured rate on its own
+@Component
+@ConditionalOnProperty(name = "rate-limit.mode", havingValue = "local", matchIfMissing = true)
+public class InMemoryRateLimitBucketStore extends RateLimitBucketStore {
+
+    public InMemoryRateLimitBucketStore(@Value("${rate-limit.buckets.max-size:100000}") long maxSize,
+                                        @Value("${rate-limit.buckets.idle-expiry:10m}") Duration idleExpiry,
+                                        MeterRegistry meterRegistry) {
+        super(maxSize, idleExpiry, meterRegistry);
+    }
+
+    @Override
+    protected Bucket newBucket(String key, Supplier<BucketConfiguration> configuration) {
+        LocalBucketBuilder builder = Bucket.builder();
+        for (Bandwidth limit : configuration.get().getBandwidths()) {
+            builder.addLimit(limit);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.TransactFlow.TransactFlow.config;
+
+import com.TransactFlow.TransactFlow.service.LedgerBackfillService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Start a node with ledger.backfill-on-startup=true to write ledger entries for transactions recorded before the ledger
+// existed, or for any whose entries failed to write. Safe to run while transfers continue.
+@Component
+@ConditionalOnProperty(name = "ledger.backfill-on-startup", havingValue = "true")
+@RequiredArgsConstructor
+public class LedgerBackfillRunner implements ApplicationRunner {
+
+    private final LedgerBackfillService ledgerBackfillService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ledgerBackfillService.backfill();
+    }
+}
@@ -0,0 +1,58 @@
+package com.TransactFlow.TransactFlow.config;
+
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.data.model.TransferAggregate;
+import com.TransactFlow.TransactFlow.data.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+// Money fields used to be Decimal128 (or, before that, strings) in major units; they are now int64 cents.
+// The two cannot be mixed in one $inc or balance guard, so this runs during context startup, before the web server
+// takes traffic. Nodes still running the old code would misread converted values: deploy with all nodes stopped.
+@Component
+@Profile("!inmemory")
+@RequiredArgsConstructor
+@Slf4j
+public class MinorUnitMigration implements SmartInitializingSingleton {
+
+    // Every BSON numeric or string type an amount may have been stored as, other than int64
+    private static final List<String> LEGACY_TYPES = List.of("string", "double", "int", "decimal");
+
+    private static final Map<Class<?>, List<String>> MONEY_FIELDS = Map.of(
+            User.class, List.of("balance"),
+            Transaction.class, List.of("amount", "senderBalanceBefore", "senderBalanceAfter",
+                    "receiverBalanceBefore", "receiverBalanceAfter"),
+            TransferAggregate.class, List.of("sentTotal", "receivedTotal"));
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        MONEY_FIELDS.forEach((entity, fields) -> {
+            String collection = mongoTemplate.getCollectionName(entity);
+            for (String field : fields) {
+                long migrated = mongoTemplate.getCollection(collection)
+                        .updateMany(new Document(field, new Document("$type", LEGACY_TYPES)), toCents(field))
+                        .getModifiedCount();
+                if (migrated > 0) {
+                    log.info("Converted {} '{}.{}' values to int64 cents", migrated, collection, field);
+                }
+            }
+        });
+    }
+
+    // { $set: { field: { $toLong: { $round: [ { $multiply: [ { $toDecimal: "$field" }, 100 ] }, 0 ] } } } }
+    private static List<Document> toCents(String field) {
+        Document cents = new Document("$multiply", List.of(new Document("$toDecimal", "$" + field), 100));
+        Document rounded = new Document("$round", List.of(cents, 0));
+        return List.of(new Document("$set", new Document(field, new Document("$toLong", rounded))));
+    }
+}
@@ -0,0 +1,81 @@
+package com.TransactFlow.TransactFlow.config;
+
+import com.TransactFlow.TransactFlow.data.model.Money;
+import org.bson.types.Decimal128;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Configuration
+public class MongoConfig {
+
+    // Money is stored as int64 cents and BigDecimal as Decimal128 rather than the default string,
+    // so both can be compared and $inc'd server side
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(
+                BigDecimalToDecimal128Converter.INSTANCE,
+                Decimal128ToBigDecimalConverter.INSTANCE,
+                MoneyToLongConverter.INSTANCE,
+                LongToMoneyConverter.INSTANCE,
+                Decimal128ToMoneyConverter.INSTANCE
+        ));
+    }
+
+    @WritingConverter
+    enum BigDecimalToDecimal128Converter implements Converter<BigDecimal, Decimal128> {
+        INSTANCE;
+
+        @Override
+        public Decimal128 convert(BigDecimal source) {
+            return new Decimal128(source);
+        }
+    }
+
+    @ReadingConverter
+    enum Decimal128ToBigDecimalConverter implements Converter<Decimal128, BigDecimal> {
+        INSTANCE;
+
+        @Override
+        public BigDecimal convert(Decimal128 source) {
+            return source.bigDecimalValue();
+        }
+    }
+
+    @WritingConverter
+    enum MoneyToLongConverter implements Converter<Money, Long> {
+        INSTANCE;
+
+        @Override
+        public Long convert(Money source) {
+            return source.getMinorUnits();
+        }
+    }
+
+    @ReadingConverter
+    enum LongToMoneyConverter implements Converter<Long, Money> {
+        INSTANCE;
+
+        @Override
+        public Money convert(Long source) {
+            return Money.ofMinor(source);
+        }
+    }
+
+    // Amounts written before the cents migration are Decimal128 in major units
+    @ReadingConverter
+    enum Decimal128ToMoneyConverter implements Converter<Decimal128, Money> {
+        INSTANCE;
+
+        @Override
+        public Money convert(Decimal128 source) {
+            return Money.of(source.bigDecimalValue());
+        }
+    }
+}
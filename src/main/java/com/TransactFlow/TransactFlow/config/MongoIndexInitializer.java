@@ -0,0 +1,79 @@
+package com.TransactFlow.TransactFlow.config;
+
+import com.TransactFlow.TransactFlow.data.model.BalanceSlot;
+import com.TransactFlow.TransactFlow.data.model.IdempotencyRecord;
+import com.TransactFlow.TransactFlow.data.model.LedgerEntry;
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.data.model.TransferAggregate;
+import com.TransactFlow.TransactFlow.data.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@Profile("!inmemory")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndexInitializer implements ApplicationRunner {
+
+    // Entities whose @Indexed / @CompoundIndex declarations are created at startup
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(User.class, Transaction.class, IdempotencyRecord.class,
+            TransferAggregate.class, LedgerEntry.class, BalanceSlot.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mongoMappingContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        IndexResolver resolver = IndexResolver.create(mongoMappingContext);
+
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            List<Document> expected = new ArrayList<>();
+
+            for (IndexDefinition definition : resolver.resolveIndexFor(entity)) {
+                try {
+                    indexOps.createIndex(definition);
+                } catch (RuntimeException e) {
+                    log.error("Could not create index {} on {}: {}",
+                            definition.getIndexKeys(), entity.getSimpleName(), e.getMessage());
+                }
+                expected.add(definition.getIndexKeys());
+            }
+
+            verify(entity, expected);
+        }
+    }
+
+    private void verify(Class<?> entity, List<Document> expected) {
+        String collection = mongoTemplate.getCollectionName(entity);
+        List<Document> existing = new ArrayList<>();
+        for (Document index : mongoTemplate.getCollection(collection).listIndexes()) {
+            existing.add(index.get("key", Document.class));
+        }
+
+        List<Document> missing = new ArrayList<>(expected);
+        missing.removeAll(existing);
+
+        if (missing.isEmpty()) {
+            log.info("Verified {} indexes on '{}'", expected.size(), collection);
+        } else {
+            log.error("Missing indexes on '{}': {}", collection, missing);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.TransactFlow.TransactFlow.config;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Updates;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import org.bson.Document;
+import org.bson.types.Binary;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Bucket state lives in one document per key; bucket4j retries whenever the compare-and-swap loses a race.
+// The collection is the blocking driver's, so the async API runs the same operations on virtual threads.
+public class MongoProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+    private static final String STATE = "state";
+    private static final String EXPIRES_AT = "expiresAt";
+
+    private final MongoCollection<Document> collection;
+    private final Duration stateTtl;
+    private final Executor asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public MongoProxyManager(MongoCollection<Document> collection, Duration stateTtl) {
+        super(ClientSideConfig.getDefault());
+        this.collection = collection;
+        this.stateTtl = stateTtl;
+        collection.createIndex(Indexes.ascending(EXPIRES_AT), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        return new CompareAndSwapOperation() {
+            @Override
+            public Optional<byte[]> getStateData(Optional<Long> timeoutNanos) {
+                Document document = collection.find(Filters.eq("_id", key)).first();
+                return Optional.ofNullable(document)
+                        .map(found -> found.get(STATE, Binary.class).getData());
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState,
+                                          Optional<Long> timeoutNanos) {
+                Date expiresAt = new Date(System.currentTimeMillis() + stateTtl.toMillis());
+
+                if (originalData == null) {
+                    try {
+                        collection.insertOne(new Document("_id", key)
+                                .append(STATE, new Binary(newData))
+                                .append(EXPIRES_AT, expiresAt));
+                        return true;
+                    } catch (MongoWriteException e) {
+                        if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                            return false;
+                        }
+                        throw e;
+                    }
+                }
+
+                return collection.updateOne(
+                        Filters.and(Filters.eq("_id", key), Filters.eq(STATE, new Binary(originalData))),
+                        Updates.combine(Updates.set(STATE, new Binary(newData)), Updates.set(EXPIRES_AT, expiresAt))
+                ).getMatchedCount() == 1;
+            }
+        };
+    }
+
+    @Override
+    protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+        CompareAndSwapOperation operation = beginCompareAndSwapOperation(key);
+        return new AsyncCompareAndSwapOperation() {
+            @Override
+            public CompletableFuture<Optional<byte[]>> getStateData(Optional<Long> timeoutNanos) {
+                return CompletableFuture.supplyAsync(() -> operation.getStateData(timeoutNanos), asyncExecutor);
+            }
+
+            @Override
+            public CompletableFuture<Boolean> compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState,
+                                                             Optional<Long> timeoutNanos) {
+                return CompletableFuture.supplyAsync(
+                        () -> operation.compareAndSwap(originalData, newData, newState, timeoutNanos), asyncExecutor);
+            }
+        };
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        collection.deleteOne(Filters.eq("_id", key));
+    }
+
+    @Override
+    protected CompletableFuture<Void> removeAsync(String key) {
+        return CompletableFuture.runAsync(() -> removeProxy(key), asyncExecutor);
+    }
+
+    @Override
+    public boolean isAsyncModeSupported() {
+        return true;
+    }
+}
@@ -0,0 +1,65 @@
+package com.TransactFlow.TransactFlow.config;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimization;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// Cluster-wide limits: every replica consumes from the same bucket documents
+@Component
+@ConditionalOnProperty(name = "rate-limit.mode", havingValue = "mongo")
+public class MongoRateLimitBucketStore extends RateLimitBucketStore {
+
+    private final MongoProxyManager proxyManager;
+
+    // Each node may spend this share of a bucket's capacity locally before syncing, so most calls skip Mongo.
+    // The price is over-admission: every node can admit its unsynced tokens on top of what the others already took,
+    // so a burst can get up to (nodes x share x capacity) extra requests through before the next sync.
+    private final double maxUnsyncedShare;
+    private final Duration maxUnsyncedTimeout;
+
+    public MongoRateLimitBucketStore(MongoTemplate mongoTemplate,
+                                     @Value("${rate-limit.mongo.collection:rate_limit_buckets}") String collection,
+                                     @Value("${rate-limit.mongo.state-ttl:1h}") Duration stateTtl,
+                                     @Value("${rate-limit.mongo.max-unsynced-share:0.2}") double maxUnsyncedShare,
+                                     @Value("${rate-limit.mongo.max-unsynced-timeout:500ms}") Duration maxUnsyncedTimeout,
+                                     @Value("${rate-limit.buckets.max-size:100000}") long maxSize,
+                                     @Value("${rate-limit.buckets.idle-expiry:10m}") Duration idleExpiry,
+                                     MeterRegistry meterRegistry) {
+        super(maxSize, idleExpiry, meterRegistry);
+        this.proxyManager = new MongoProxyManager(mongoTemplate.getCollection(collection), stateTtl);
+        if (maxUnsyncedShare < 0 || maxUnsyncedShare >= 1) {
+            throw new IllegalArgumentException("rate-limit.mongo.max-unsynced-share must be in [0, 1)");
+        }
+        this.maxUnsyncedShare = maxUnsyncedShare;
+        this.maxUnsyncedTimeout = maxUnsyncedTimeout;
+    }
+
+    @Override
+    protected boolean blocksOnConsume() {
+        return true;
+    }
+
+    @Override
+    protected Bucket newBucket(String key, Supplier<BucketConfiguration> configuration) {
+        return proxyManager.builder()
+                .withOptimization(prefetch(configuration.get()))
+                .build(key, configuration);
+    }
+
+    // Sized per bucket: the auth and transaction limits differ, and a fixed token count would be all or nothing
+    private Optimization prefetch(BucketConfiguration configuration) {
+        long capacity = configuration.getBandwidths()[0].getCapacity();
+        long maxUnsyncedTokens = Math.max(1, (long) (capacity * maxUnsyncedShare));
+        return Optimizations.delaying(new DelayParameters(maxUnsyncedTokens, maxUnsyncedTimeout));
+    }
+}
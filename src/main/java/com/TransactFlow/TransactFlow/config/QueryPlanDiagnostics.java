@@ -0,0 +1,122 @@
+package com.TransactFlow.TransactFlow.config;
+
+import com.TransactFlow.TransactFlow.data.model.LedgerDirection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+@Profile("!inmemory")
+@RequiredArgsConstructor
+@Slf4j
+public class QueryPlanDiagnostics implements ApplicationRunner {
+
+    // Plan stages that mean a query scans the collection or sorts in memory
+    private static final Set<String> UNINDEXED_STAGES = Set.of("COLLSCAN", "SORT");
+
+    private static final String SAMPLE_EMAIL = "diagnostics@example.com";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${mongo.explain-on-startup:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        for (Map.Entry<String, Document> query : repositoryQueries().entrySet()) {
+            try {
+                Set<String> stages = explain(query.getValue());
+                Set<String> offending = new LinkedHashSet<>(stages);
+                offending.retainAll(UNINDEXED_STAGES);
+
+                if (offending.isEmpty()) {
+                    log.info("Query plan OK for {}: {}", query.getKey(), stages);
+                } else {
+                    log.warn("Query {} is not index-covered, plan uses {}: {}", query.getKey(), offending, stages);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not explain {}: {}", query.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    // The shapes the repositories actually send, with sample values
+    private Map<String, Document> repositoryQueries() {
+        Date now = new Date();
+        ObjectId id = new ObjectId();
+        Document newestFirst = new Document("createdAt", -1).append("transactionId", -1);
+        List<Document> beforeCursor = List.of(
+                new Document("createdAt", new Document("$lt", now)),
+                new Document("createdAt", now).append("transactionId", new Document("$lt", id)));
+
+        Map<String, Document> queries = new LinkedHashMap<>();
+        queries.put("UserRepository.findByEmail",
+                find("user", new Document("email", SAMPLE_EMAIL), null));
+        queries.put("LedgerEntryRepository.findByAccountEmail",
+                find("ledger_entries", new Document("accountEmail", SAMPLE_EMAIL), newestFirst));
+        queries.put("LedgerEntryRepository.findEntriesBefore",
+                find("ledger_entries", new Document("accountEmail", SAMPLE_EMAIL).append("$or", beforeCursor), newestFirst));
+        queries.put("LedgerEntryRepository.findByAccountEmailAndDirection",
+                find("ledger_entries", byDirection(), newestFirst));
+        queries.put("LedgerEntryRepository.findEntriesBefore(direction)",
+                find("ledger_entries", byDirection().append("$or", beforeCursor), newestFirst));
+        return queries;
+    }
+
+    private Document byDirection() {
+        return new Document("accountEmail", SAMPLE_EMAIL).append("direction", LedgerDirection.DEBIT.name());
+    }
+
+    private Document find(String collection, Document filter, Document sort) {
+        Document find = new Document("find", collection).append("filter", filter).append("limit", 21);
+        if (sort != null) {
+            find.append("sort", sort);
+        }
+        return find;
+    }
+
+    Set<String> explain(Document find) {
+        Document result = mongoTemplate.getDb().runCommand(
+                new Document("explain", find).append("verbosity", "queryPlanner"));
+
+        Document queryPlanner = result.get("queryPlanner", Document.class);
+        Set<String> stages = new LinkedHashSet<>();
+        collectStages(queryPlanner.get("winningPlan"), stages);
+        return stages;
+    }
+
+    // Plans nest stages under inputStage/inputStages (and queryPlan on newer servers); walk everything
+    private void collectStages(Object node, Set<String> stages) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String name) {
+                stages.add(name);
+            }
+            for (Object value : document.values()) {
+                collectStages(value, stages);
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                collectStages(value, stages);
+            }
+        }
+    }
+}
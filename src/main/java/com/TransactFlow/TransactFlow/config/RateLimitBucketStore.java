@@ -0,0 +1,66 @@
+package com.TransactFlow.TransactFlow.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+// Bounded home for per-client buckets: idle keys expire and the total is capped, so IP churn can't grow the heap
+public abstract class RateLimitBucketStore {
+
+    private final Cache<String, Bucket> buckets;
+    private final MeterRegistry meterRegistry;
+
+    // Accept/reject counters keyed by limit name and decision
+    private final ConcurrentMap<String, Counter> decisions = new ConcurrentHashMap<>();
+
+    protected RateLimitBucketStore(long maxSize, Duration idleExpiry, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(idleExpiry)
+                .recordStats()
+                .build();
+
+        Gauge.builder("ratelimit.buckets", buckets, Cache::estimatedSize)
+                .description("Rate-limit buckets currently held in memory")
+                .register(meterRegistry);
+        FunctionCounter.builder("ratelimit.buckets.evictions", buckets, cache -> cache.stats().evictionCount())
+                .description("Rate-limit buckets dropped for being idle or over the cap")
+                .register(meterRegistry);
+    }
+
+    public Bucket resolve(String key, Supplier<BucketConfiguration> configuration) {
+        return buckets.get(key, k -> newBucket(k, configuration));
+    }
+
+    // Takes one token from the client's bucket and counts the decision under the given limit name
+    public ConsumptionProbe consume(String key, String limit, Supplier<BucketConfiguration> configuration) {
+        ConsumptionProbe probe = resolve(key, configuration).tryConsumeAndReturnRemaining(1);
+        String result = probe.isConsumed() ? "accepted" : "rejected";
+        decisions.computeIfAbsent(limit + ':' + result, id -> Counter.builder("ratelimit.requests")
+                        .description("Requests checked against a rate limit")
+                        .tag("limit", limit)
+                        .tag("result", result)
+                        .register(meterRegistry))
+                .increment();
+        return probe;
+    }
+
+    // True when consuming a token can wait on I/O; reactive callers then keep it off the event loop
+    protected boolean blocksOnConsume() {
+        return false;
+    }
+
+    protected abstract Bucket newBucket(String key, Supplier<BucketConfiguration> configuration);
+}
@@ -2,34 +2,39 @@ package com.TransactFlow.TransactFlow.config;
 
 
 import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
-import org.springframework.context.annotation.Bean;
+import io.github.bucket4j.BucketConfiguration;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Configuration
 public class RateLimitConfig {
 
-    @Bean
-    public Map<String, Bucket> rateLimitBuckets() {
-        return new ConcurrentHashMap<>();
+    // Limits are described as configurations so both the local and the distributed store can build buckets from them
+    private final BucketConfiguration transactionBucket;
+
+    private final BucketConfiguration authBucket;
+
+    public RateLimitConfig(@Value("${rate-limit.transactions.capacity:10}") long transactionCapacity,
+                           @Value("${rate-limit.transactions.period:1m}") Duration transactionPeriod,
+                           @Value("${rate-limit.auth.capacity:5}") long authCapacity,
+                           @Value("${rate-limit.auth.period:1m}") Duration authPeriod) {
+        this.transactionBucket = bucket(transactionCapacity, transactionPeriod);
+        this.authBucket = bucket(authCapacity, authPeriod);
     }
 
-    public Bucket createNewBucket(){
-        Bandwidth limit = Bandwidth.classic(10, Refill.intervally(10, Duration.ofMinutes(1)));
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+    public BucketConfiguration transactionBucketConfiguration(){
+        return transactionBucket;
+    }
+
+    public BucketConfiguration authBucketConfiguration(){
+        return authBucket;
     }
 
-    public Bucket createAuthBucket(){
-        Bandwidth limit = Bandwidth.classic(5,Refill.intervally(5,Duration.ofMinutes(1)));
-        return Bucket.builder()
-                .addLimit(limit)
+    private static BucketConfiguration bucket(long capacity, Duration period) {
+        return BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder().capacity(capacity).refillIntervally(capacity, period).build())
                 .build();
     }
 }
@@ -1,7 +1,7 @@
 package com.TransactFlow.TransactFlow.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,6 +9,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -18,16 +19,18 @@ import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 
 @Component
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Slf4j
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    private final Map<String, Bucket> rateLimitBuckets;
+    private final RateLimitBucketStore rateLimitBucketStore;
     private final RateLimitConfig rateLimitConfig;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -44,15 +47,12 @@ public class RateLimitFilter extends OncePerRequestFilter {
 
         String userKey = getUserKey(request, path);
 
-        Bucket bucket = rateLimitBuckets.computeIfAbsent(userKey, k -> {
-            if (path.startsWith("/api/auth")) {
-                return rateLimitConfig.createAuthBucket();
-            } else {
-                return rateLimitConfig.createNewBucket();
-            }
-        });
+        boolean authPath = path.startsWith("/api/auth");
+        Supplier<BucketConfiguration> configuration = authPath
+                ? rateLimitConfig::authBucketConfiguration
+                : rateLimitConfig::transactionBucketConfiguration;
 
-        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        ConsumptionProbe probe = rateLimitBucketStore.consume(userKey, authPath ? "auth" : "transactions", configuration);
 
         if (probe.isConsumed()) {
             response.addHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
@@ -88,10 +88,9 @@ public class RateLimitFilter extends OncePerRequestFilter {
         }
 
 
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty()) {
-            ip = request.getRemoteAddr();
-        }
+        // server.forward-headers-strategy=native: Tomcat's RemoteIpValve has already replaced the peer address with the
+        // right-most X-Forwarded-For hop that is not a trusted proxy, so a client cannot choose its own key
+        String ip = request.getRemoteAddr();
         return "ip:" + ip;
     }
 
@@ -0,0 +1,135 @@
+package com.TransactFlow.TransactFlow.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+// Reactive counterpart of RateLimitFilter, sharing its bucket store and limits. Built by ReactiveSecurityConfig
+// rather than registered as a bean, for the same reason as JwtAuthenticationWebFilter.
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitWebFilter implements WebFilter {
+
+    private final RateLimitBucketStore rateLimitBucketStore;
+    private final RateLimitConfig rateLimitConfig;
+    private final ObjectMapper objectMapper;
+    private final Pattern trustedProxies;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+
+        if (path.contains("/api/auth/register") || path.contains("/api/auth/login")) {
+            return chain.filter(exchange);
+        }
+
+        boolean authPath = path.startsWith("/api/auth");
+        Supplier<BucketConfiguration> configuration = authPath
+                ? rateLimitConfig::authBucketConfiguration
+                : rateLimitConfig::transactionBucketConfiguration;
+        String limit = authPath ? "auth" : "transactions";
+
+        return getUserKey(exchange.getRequest())
+                .flatMap(userKey -> consume(userKey, limit, configuration)
+                        .flatMap(probe -> {
+                            if (probe.isConsumed()) {
+                                exchange.getResponse().getHeaders()
+                                        .add("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
+                                return chain.filter(exchange);
+                            }
+                            log.warn("Rate limit exceeded for user: {} on path: {}", userKey, path);
+                            return reject(exchange.getResponse(), probe);
+                        }));
+    }
+
+    private Mono<ConsumptionProbe> consume(String userKey, String limit, Supplier<BucketConfiguration> configuration) {
+        Mono<ConsumptionProbe> probe = Mono.fromCallable(() -> rateLimitBucketStore.consume(userKey, limit, configuration));
+
+        // Local buckets are lock-free and answer inline; shared buckets may round-trip to MongoDB
+        return rateLimitBucketStore.blocksOnConsume()
+                ? probe.subscribeOn(Schedulers.boundedElastic())
+                : probe;
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, ConsumptionProbe probe) {
+        long waitForRefill = probe.getNanosToWaitForRefill() / 1_000_000_000;
+
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().add("X-RateLimit-Retry-After-Seconds", String.valueOf(waitForRefill));
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", 429);
+        errorResponse.put("error", "Too Many Requests");
+        errorResponse.put("message", "Rate limit exceeded. Please try again in " + waitForRefill + " seconds");
+        errorResponse.put("retryAfter", waitForRefill + " seconds");
+
+        try {
+            DataBuffer body = response.bufferFactory().wrap(objectMapper.writeValueAsBytes(errorResponse));
+            return response.writeWith(Mono.just(body));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private Mono<String> getUserKey(ServerHttpRequest request) {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(Authentication::isAuthenticated)
+                .filter(authentication -> !(authentication instanceof AnonymousAuthenticationToken))
+                .map(Authentication::getName)
+                .switchIfEmpty(Mono.fromSupplier(() -> "ip:" + clientIp(request)));
+    }
+
+    // Reactor Netty would take the left-most X-Forwarded-For hop, which the client writes itself, so forwarded headers
+    // are left raw (server.forward-headers-strategy=none) and resolved here the way Tomcat's RemoteIpValve does it:
+    // starting at the peer, walk the chain right to left past trusted proxies and key on the first address that is not one.
+    String clientIp(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String ip = remoteAddress == null ? "unknown" : remoteAddress.getAddress().getHostAddress();
+
+        List<String> forwardedFor = request.getHeaders().get("X-Forwarded-For");
+        if (forwardedFor == null) {
+            return ip;
+        }
+        List<String> hops = new ArrayList<>();
+        for (String header : forwardedFor) {
+            for (String hop : header.split(",")) {
+                if (!hop.isBlank()) {
+                    hops.add(hop.trim());
+                }
+            }
+        }
+        for (int i = hops.size() - 1; i >= 0 && trustedProxies.matcher(ip).matches(); i--) {
+            ip = hops.get(i);
+        }
+        return ip;
+    }
+}
@@ -5,11 +5,13 @@ import com.TransactFlow.TransactFlow.dtos.request.RegisterRequestDto;
 import com.TransactFlow.TransactFlow.dtos.response.AuthResponseDto;
 import com.TransactFlow.TransactFlow.service.AuthService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 public class AuthController {
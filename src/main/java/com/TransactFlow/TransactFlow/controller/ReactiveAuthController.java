@@ -0,0 +1,38 @@
+package com.TransactFlow.TransactFlow.controller;
+
+import com.TransactFlow.TransactFlow.dtos.request.LoginRequestDto;
+import com.TransactFlow.TransactFlow.dtos.request.RegisterRequestDto;
+import com.TransactFlow.TransactFlow.dtos.response.AuthResponseDto;
+import com.TransactFlow.TransactFlow.service.AuthService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+// BCrypt and the user writes block, so auth runs on boundedElastic rather than the event loop
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class ReactiveAuthController {
+
+    private final AuthService authService;
+
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<AuthResponseDto>> register(@RequestBody RegisterRequestDto registerRequest){
+        return Mono.fromCallable(() -> authService.register(registerRequest))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<AuthResponseDto>> login(@RequestBody LoginRequestDto loginRequest) {
+        return Mono.fromCallable(() -> authService.login(loginRequest))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+}
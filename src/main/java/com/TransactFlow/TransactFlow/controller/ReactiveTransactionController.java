@@ -0,0 +1,111 @@
+package com.TransactFlow.TransactFlow.controller;
+
+
+import com.TransactFlow.TransactFlow.dtos.TransactionHistoryDto;
+import com.TransactFlow.TransactFlow.dtos.TransactionSummaryDto;
+import com.TransactFlow.TransactFlow.dtos.WalletBalanceDto;
+import com.TransactFlow.TransactFlow.dtos.request.TransferRequestDto;
+import com.TransactFlow.TransactFlow.dtos.response.BatchTransferResponseDto;
+import com.TransactFlow.TransactFlow.dtos.response.TransferResponseDto;
+import com.TransactFlow.TransactFlow.service.HistoryExportFormat;
+import com.TransactFlow.TransactFlow.service.ReactiveTransactionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Same routes as TransactionController, served by WebFlux under the reactive profile.
+// History endpoints stream instead of paging: JSON arrays by default, one object per line for application/x-ndjson.
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/transactions")
+@RequiredArgsConstructor
+public class ReactiveTransactionController {
+
+    private final ReactiveTransactionService reactiveTransactionService;
+
+    @GetMapping("/wallet")
+    public Mono<WalletBalanceDto> getWalletBalance(Authentication authentication){
+        return reactiveTransactionService.getWalletBalance(authentication.getName());
+    }
+
+    @RequestMapping("/transfer")
+    public Mono<TransferResponseDto> transferMoney(
+            @RequestBody TransferRequestDto request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            Authentication authentication
+            ){
+        return reactiveTransactionService.transferMoney(authentication.getName(), request, idempotencyKey);
+    }
+
+    @PostMapping("/transfer/batch")
+    public Mono<BatchTransferResponseDto> transferBatch(
+            @RequestBody List<TransferRequestDto> requests,
+            Authentication authentication
+            ){
+        return reactiveTransactionService.transferBatch(authentication.getName(), requests);
+    }
+
+    @GetMapping(value = "/history", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TransactionHistoryDto> getTransactionHistory(
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication){
+        return reactiveTransactionService.getTransactionHistory(authentication.getName(), limit);
+    }
+
+    @GetMapping("/history/export")
+    public ResponseEntity<Flux<String>> exportTransactionHistory(
+            @RequestParam(defaultValue = "ndjson") String format,
+            Authentication authentication){
+        HistoryExportFormat exportFormat = HistoryExportFormat.from(format);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + exportFormat.getExtension() + "\"")
+                .body(reactiveTransactionService.exportHistory(authentication.getName(), exportFormat));
+    }
+
+    @GetMapping(value = "/sent", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TransactionHistoryDto> getSentTransactions(
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication){
+        return reactiveTransactionService.getSentTransactions(authentication.getName(), limit);
+    }
+
+    @GetMapping(value = "/received", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TransactionHistoryDto> getReceivedTransactions(
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication){
+        return reactiveTransactionService.getReceivedTransactions(authentication.getName(), limit);
+    }
+
+    @GetMapping("/summary")
+    public Mono<TransactionSummaryDto> getTransactionSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "month") String granularity,
+            Authentication authentication){
+        return reactiveTransactionService.getTransactionSummary(authentication.getName(), from, to, granularity);
+    }
+
+    @GetMapping("/balance")
+    public Mono<WalletBalanceDto> getBalance(Authentication authentication){
+        return reactiveTransactionService.getWalletBalance(authentication.getName());
+    }
+}
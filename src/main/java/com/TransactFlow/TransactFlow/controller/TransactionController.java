@@ -1,22 +1,34 @@
 package com.TransactFlow.TransactFlow.controller;
 
 
-import com.TransactFlow.TransactFlow.dtos.TransactionHistoryDto;
+import com.TransactFlow.TransactFlow.dtos.TransactionPageDto;
+import com.TransactFlow.TransactFlow.dtos.TransactionSummaryDto;
 import com.TransactFlow.TransactFlow.dtos.WalletBalanceDto;
 import com.TransactFlow.TransactFlow.dtos.request.TransferRequestDto;
+import com.TransactFlow.TransactFlow.dtos.response.BatchTransferResponseDto;
 import com.TransactFlow.TransactFlow.dtos.response.TransferResponseDto;
+import com.TransactFlow.TransactFlow.service.HistoryExportFormat;
 import com.TransactFlow.TransactFlow.service.TransactionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/transactions")
 @RequiredArgsConstructor
 public class TransactionController {
@@ -33,36 +45,86 @@ public class TransactionController {
     @RequestMapping("/transfer")
     public ResponseEntity<TransferResponseDto> transferMoney(
             @RequestBody TransferRequestDto request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             Authentication authentication
             ){
 
         String senderEmail = authentication.getName();
 
-        TransferResponseDto response = transactionService.transferMoney(senderEmail, request);
+        TransferResponseDto response = transactionService.transferMoney(senderEmail, request, idempotencyKey);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/transfer/batch")
+    public ResponseEntity<BatchTransferResponseDto> transferBatch(
+            @RequestBody List<TransferRequestDto> requests,
+            Authentication authentication
+            ){
+
+        String senderEmail = authentication.getName();
+
+        BatchTransferResponseDto response = transactionService.transferBatch(senderEmail, requests);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/history")
-    public ResponseEntity<List<TransactionHistoryDto>> getTransactionHistory(Authentication authentication){
+    public ResponseEntity<TransactionPageDto> getTransactionHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication){
         String email = authentication.getName();
-        List<TransactionHistoryDto> history = transactionService.getTransactionHistory(email);
+        TransactionPageDto history = transactionService.getTransactionHistory(email, cursor, limit);
         return ResponseEntity.ok(history);
     }
 
+    @GetMapping("/history/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactionHistory(
+            @RequestParam(defaultValue = "ndjson") String format,
+            Authentication authentication){
+        String email = authentication.getName();
+        HistoryExportFormat exportFormat = HistoryExportFormat.from(format);
+
+        StreamingResponseBody body = outputStream ->
+                transactionService.exportHistory(email, exportFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/sent")
-    public ResponseEntity<List<TransactionHistoryDto>> getSentTransactions(Authentication authentication){
+    public ResponseEntity<TransactionPageDto> getSentTransactions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication){
         String email = authentication.getName();
-        List<TransactionHistoryDto> sent = transactionService.getSentTransactions(email);
+        TransactionPageDto sent = transactionService.getSentTransactions(email, cursor, limit);
         return ResponseEntity.ok(sent);
     }
 
     @GetMapping("/received")
-    public ResponseEntity<List<TransactionHistoryDto>> getReceivedTransactions(Authentication authentication){
+    public ResponseEntity<TransactionPageDto> getReceivedTransactions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication){
         String email = authentication.getName();
-        List<TransactionHistoryDto> received = transactionService.getReceivedTransactions(email);
+        TransactionPageDto received = transactionService.getReceivedTransactions(email, cursor, limit);
         return ResponseEntity.ok(received);
     }
 
+    @GetMapping("/summary")
+    public ResponseEntity<TransactionSummaryDto> getTransactionSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "month") String granularity,
+            Authentication authentication){
+        String email = authentication.getName();
+        TransactionSummaryDto summary = transactionService.getTransactionSummary(email, from, to, granularity);
+        return ResponseEntity.ok(summary);
+    }
+
     @GetMapping("/balance")
     public ResponseEntity<WalletBalanceDto> getBalance(Authentication authentication){
         String email = authentication.getName();
@@ -0,0 +1,36 @@
+package com.TransactFlow.TransactFlow.data.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+// Bucket sizes kept in transfer_aggregates. Period keys are ISO strings, so they sort and range-scan chronologically.
+public enum AggregateGranularity {
+    DAY(DateTimeFormatter.ofPattern("yyyy-MM-dd"), "%Y-%m-%d"),
+    MONTH(DateTimeFormatter.ofPattern("yyyy-MM"), "%Y-%m");
+
+    private final DateTimeFormatter formatter;
+    private final String mongoFormat;
+
+    AggregateGranularity(DateTimeFormatter formatter, String mongoFormat) {
+        this.formatter = formatter;
+        this.mongoFormat = mongoFormat;
+    }
+
+    public String period(LocalDate date) {
+        return formatter.format(date);
+    }
+
+    // Same key, as produced by $dateToString when aggregates are rebuilt server side
+    public String getMongoFormat() {
+        return mongoFormat;
+    }
+
+    public static AggregateGranularity from(String value) {
+        for (AggregateGranularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(value)) {
+                return granularity;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported granularity: " + value);
+    }
+}
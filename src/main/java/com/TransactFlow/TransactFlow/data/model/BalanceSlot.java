@@ -0,0 +1,41 @@
+package com.TransactFlow.TransactFlow.data.model;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// One stripe of a hot account's balance. Credits $inc a random slot instead of the user document, so concurrent
+// receivers write to different documents. `credited` only ever grows; the user records how much of each slot it
+// has folded into its balance (User.stripeFolded), and the difference is money still sitting in the slot.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document(collection = "balance_slots")
+public class BalanceSlot {
+
+    @Id
+    private String id;
+    @Indexed
+    private String accountEmail;
+    private int slot;
+    private Money credited;
+    // The account's User.active, copied here so a credit checks it in the same update that applies it
+    private Boolean active;
+    private LocalDateTime updatedAt;
+
+    public static String id(String accountEmail, int slot) {
+        return idPrefix(accountEmail) + slot;
+    }
+
+    public static String idPrefix(String accountEmail) {
+        return accountEmail + "|";
+    }
+}
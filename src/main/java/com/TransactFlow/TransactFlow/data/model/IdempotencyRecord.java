@@ -0,0 +1,31 @@
+package com.TransactFlow.TransactFlow.data.model;
+
+
+import com.TransactFlow.TransactFlow.dtos.response.TransferResponseDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+
+    // senderEmail + ":" + Idempotency-Key, so keys are scoped per sender
+    @Id
+    private String id;
+    private IdempotencyStatus status;
+    private TransferResponseDto response;
+    private String error;
+
+    @Indexed(expireAfter = "24h")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,8 @@
+package com.TransactFlow.TransactFlow.data.model;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED,
+    // The transfer failed after money may have moved; the key is never run again
+    FAILED,
+}
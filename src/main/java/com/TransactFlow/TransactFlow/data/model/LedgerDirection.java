@@ -0,0 +1,6 @@
+package com.TransactFlow.TransactFlow.data.model;
+
+public enum LedgerDirection {
+    DEBIT,
+    CREDIT,
+}
@@ -0,0 +1,77 @@
+package com.TransactFlow.TransactFlow.data.model;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One side of a transfer as seen by one account: a DEBIT for the sender and a CREDIT for the receiver.
+// An account has at most one entry per transaction, so (accountEmail, createdAt, transactionId) orders its history
+// and every history query is a single range scan. The id is derived from the transaction, which makes backfills idempotent.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document(collection = "ledger_entries")
+@CompoundIndexes({
+        @CompoundIndex(name = "account_created_idx", def = "{'accountEmail': 1, 'createdAt': -1, 'transactionId': -1}"),
+        @CompoundIndex(name = "account_direction_created_idx",
+                def = "{'accountEmail': 1, 'direction': 1, 'createdAt': -1, 'transactionId': -1}")
+})
+public class LedgerEntry {
+
+    @Id
+    private String id;
+    @Field(targetType = FieldType.OBJECT_ID)
+    private String transactionId;
+    private String accountEmail;
+    private LedgerDirection direction;
+    private String counterpartyEmail;
+    private Money amount;
+    private Money balanceBefore;
+    private Money balanceAfter;
+    private String referenceNumber;
+    private String description;
+    private TransactionStatus status;
+    private LocalDateTime createdAt;
+
+    public static String id(String transactionId, LedgerDirection direction) {
+        return transactionId + ":" + direction.name().charAt(0);
+    }
+
+    public static List<LedgerEntry> forTransaction(Transaction transaction) {
+        return List.of(
+                entry(transaction, LedgerDirection.DEBIT, transaction.getSenderEmail(), transaction.getReceiverEmail(),
+                        transaction.getSenderBalanceBefore(), transaction.getSenderBalanceAfter()),
+                entry(transaction, LedgerDirection.CREDIT, transaction.getReceiverEmail(), transaction.getSenderEmail(),
+                        transaction.getReceiverBalanceBefore(), transaction.getReceiverBalanceAfter()));
+    }
+
+    private static LedgerEntry entry(Transaction transaction, LedgerDirection direction, String accountEmail,
+                                     String counterpartyEmail, Money balanceBefore, Money balanceAfter) {
+        return LedgerEntry.builder()
+                .id(id(transaction.getId(), direction))
+                .transactionId(transaction.getId())
+                .accountEmail(accountEmail)
+                .direction(direction)
+                .counterpartyEmail(counterpartyEmail)
+                .amount(transaction.getAmount())
+                .balanceBefore(balanceBefore)
+                .balanceAfter(balanceAfter)
+                .referenceNumber(transaction.getReferenceNumber())
+                .description(transaction.getDescription())
+                .status(transaction.getStatus())
+                .createdAt(transaction.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.TransactFlow.TransactFlow.data.model;
+
+import java.math.BigDecimal;
+
+// An amount in cents. Balances and ledger amounts are stored as int64 cents (see MongoConfig), so arithmetic on the
+// transfer path is long math and Mongo can $inc and compare them directly. BigDecimal stays at the API edge.
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    // Exact conversion; more than two significant decimal places or an out-of-range value throws ArithmeticException
+    public static Money of(BigDecimal amount) {
+        return ofMinor(minorUnitsOf(amount));
+    }
+
+    // For the usual scale-2 amount the shifted value is a compact scale-0 BigDecimal, which longValueExact reads directly
+    public static long minorUnitsOf(BigDecimal amount) {
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money money && money.minorUnits == minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
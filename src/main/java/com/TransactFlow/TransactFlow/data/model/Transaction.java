@@ -6,9 +6,11 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -16,19 +18,39 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Document(collection = "transactions")
+// History is served from ledger_entries; transactions are only looked up by id, reference, idempotency key and
+// outbox state
+@CompoundIndexes({
+        @CompoundIndex(name = "outbox_pending_idx", def = "{'outboxPending': 1, 'createdAt': 1, '_id': 1}",
+                partialFilter = "{ 'outboxPending': true }"),
+        @CompoundIndex(name = "ledger_pending_idx", def = "{'ledgerPending': 1, 'createdAt': 1, '_id': 1}",
+                partialFilter = "{ 'ledgerPending': true }")
+})
 public class Transaction {
 
     @Id
     private String id;
     private String senderEmail;
     private String receiverEmail;
-    private BigDecimal amount;
+    private Money amount;
     private String description;
     private TransactionStatus status;
+    @Indexed(unique = true)
     private String referenceNumber;
+    // senderEmail + ":" + Idempotency-Key of the request that made the transfer; absent on unkeyed and batch transfers.
+    // Unique, so however a keyed request is retried or raced, at most one transfer is ever recorded for it.
+    @Indexed(unique = true, sparse = true)
+    private String idempotencyKey;
     private LocalDateTime createdAt;
-    private BigDecimal senderBalanceBefore;
-    private BigDecimal senderBalanceAfter;
-    private BigDecimal receiverBalanceBefore;
-    private BigDecimal receiverBalanceAfter;
+    private Money senderBalanceBefore;
+    private Money senderBalanceAfter;
+    private Money receiverBalanceBefore;
+    private Money receiverBalanceAfter;
+    // Outbox marker written with the insert itself, so the event cannot exist without the transfer or vice versa;
+    // the relay unsets it once every sink has accepted the event
+    private Boolean outboxPending;
+    private LocalDateTime publishedAt;
+    // Written with the insert like outboxPending; the ledger repair unsets it once both ledger entries are known to
+    // exist, so a transfer whose entries failed to write, or whose node died first, still reaches the history
+    private Boolean ledgerPending;
 }
@@ -0,0 +1,80 @@
+package com.TransactFlow.TransactFlow.data.model;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Running totals for one account over one day or month, maintained with $inc as transfers land.
+// The id is "<accountEmail>|<period>", so every transfer upserts a known document without a lookup.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document(collection = "transfer_aggregates")
+@CompoundIndex(name = "account_period_idx", def = "{'accountEmail': 1, 'granularity': 1, 'period': 1}")
+public class TransferAggregate {
+
+    @Id
+    private String id;
+    private String accountEmail;
+    private AggregateGranularity granularity;
+    private String period;
+    // A side with no transfers yet is absent rather than zero
+    private Money sentTotal;
+    private Long sentCount;
+    private Money receivedTotal;
+    private Long receivedCount;
+    private LocalDateTime updatedAt;
+
+    public static String id(String accountEmail, String period) {
+        return accountEmail + "|" + period;
+    }
+
+    // Increments the transfers contribute to each bucket, merged so a batch touches every bucket once
+    public static Collection<TransferAggregate> incrementsFor(Collection<Transaction> transactions) {
+        Map<String, TransferAggregate> increments = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getStatus() != TransactionStatus.SUCCESS) {
+                continue;
+            }
+            LocalDate day = transaction.getCreatedAt().toLocalDate();
+            for (AggregateGranularity granularity : AggregateGranularity.values()) {
+                String period = granularity.period(day);
+                increment(increments, transaction.getSenderEmail(), granularity, period).addSent(transaction.getAmount());
+                increment(increments, transaction.getReceiverEmail(), granularity, period).addReceived(transaction.getAmount());
+            }
+        }
+        return increments.values();
+    }
+
+    public void addSent(Money amount) {
+        sentTotal = sentTotal == null ? amount : sentTotal.plus(amount);
+        sentCount = sentCount == null ? 1L : sentCount + 1;
+    }
+
+    public void addReceived(Money amount) {
+        receivedTotal = receivedTotal == null ? amount : receivedTotal.plus(amount);
+        receivedCount = receivedCount == null ? 1L : receivedCount + 1;
+    }
+
+    private static TransferAggregate increment(Map<String, TransferAggregate> increments, String accountEmail,
+                                               AggregateGranularity granularity, String period) {
+        return increments.computeIfAbsent(id(accountEmail, period), id -> TransferAggregate.builder()
+                .id(id)
+                .accountEmail(accountEmail)
+                .granularity(granularity)
+                .period(period)
+                .build());
+    }
+}
@@ -10,8 +10,8 @@ import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @Document(collection = "user")
@@ -27,10 +27,12 @@ public class User {
     private String password;
     private String firstName;
     private String lastName;
-    private BigDecimal balance;
+    private Money balance;
     private LocalDateTime createDate;
     private LocalDateTime updateDate;
     private boolean active;
+    // Striped accounts only: slot number -> how much of that BalanceSlot's credited total is already in balance
+    private Map<String, Money> stripeFolded;
 
 
 }
@@ -0,0 +1,20 @@
+package com.TransactFlow.TransactFlow.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PeriodSummaryDto {
+    private String period;
+    private BigDecimal totalSent;
+    private long sentCount;
+    private BigDecimal totalReceived;
+    private long receivedCount;
+}
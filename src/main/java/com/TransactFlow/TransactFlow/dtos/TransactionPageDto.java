@@ -0,0 +1,18 @@
+package com.TransactFlow.TransactFlow.dtos;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TransactionPageDto {
+    private List<TransactionHistoryDto> items;
+    private String nextCursor;
+}
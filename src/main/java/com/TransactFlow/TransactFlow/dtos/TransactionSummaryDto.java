@@ -0,0 +1,28 @@
+package com.TransactFlow.TransactFlow.dtos;
+
+import com.TransactFlow.TransactFlow.data.model.AggregateGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TransactionSummaryDto {
+    private LocalDate from;
+    private LocalDate to;
+    private AggregateGranularity granularity;
+    private BigDecimal totalSent;
+    private long sentCount;
+    private BigDecimal totalReceived;
+    private long receivedCount;
+    private BigDecimal netChange;
+    // Only periods with activity, oldest first; edge months cover just the days inside the range
+    private List<PeriodSummaryDto> periods;
+}
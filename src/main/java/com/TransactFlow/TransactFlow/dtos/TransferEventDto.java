@@ -0,0 +1,42 @@
+package com.TransactFlow.TransactFlow.dtos;
+
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.data.model.TransactionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TransferEventDto {
+    // The transaction id; delivery is at-least-once, so consumers dedupe on it
+    private String eventId;
+    private String type;
+    private String referenceNumber;
+    private String senderEmail;
+    private String receiverEmail;
+    private BigDecimal amount;
+    private String description;
+    private TransactionStatus status;
+    private LocalDateTime occurredAt;
+
+    public static TransferEventDto from(Transaction transaction) {
+        return TransferEventDto.builder()
+                .eventId(transaction.getId())
+                .type("TRANSFER_COMPLETED")
+                .referenceNumber(transaction.getReferenceNumber())
+                .senderEmail(transaction.getSenderEmail())
+                .receiverEmail(transaction.getReceiverEmail())
+                .amount(transaction.getAmount().toBigDecimal())
+                .description(transaction.getDescription())
+                .status(transaction.getStatus())
+                .occurredAt(transaction.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.TransactFlow.TransactFlow.dtos.response;
+
+import com.TransactFlow.TransactFlow.data.model.TransactionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchTransferItemDto {
+    private int index;
+    private String transactionId;
+    private String referenceNumber;
+    private String receiverEmail;
+    private BigDecimal amount;
+    private TransactionStatus status;
+    private String message;
+}
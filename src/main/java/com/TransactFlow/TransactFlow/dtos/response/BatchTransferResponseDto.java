@@ -0,0 +1,22 @@
+package com.TransactFlow.TransactFlow.dtos.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchTransferResponseDto {
+    private String senderEmail;
+    private int succeeded;
+    private int failed;
+    private BigDecimal totalDebited;
+    private BigDecimal newBalance;
+    private List<BatchTransferItemDto> results;
+}
@@ -0,0 +1,7 @@
+package com.TransactFlow.TransactFlow.exceptions;
+
+public class IdempotencyConflictException extends TransactFlowException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
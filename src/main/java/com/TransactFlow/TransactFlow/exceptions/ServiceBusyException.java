@@ -0,0 +1,15 @@
+package com.TransactFlow.TransactFlow.exceptions;
+
+import lombok.Getter;
+
+// Load shedding: the request was turned away before doing any work and can be retried as-is
+@Getter
+public class ServiceBusyException extends TransactFlowException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
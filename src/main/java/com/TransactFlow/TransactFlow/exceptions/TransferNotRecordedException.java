@@ -0,0 +1,8 @@
+package com.TransactFlow.TransactFlow.exceptions;
+
+// The transfer's record could not be written, so its debit and credit were reversed: no money moved
+public class TransferNotRecordedException extends TransactFlowException {
+    public TransferNotRecordedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,61 @@
+package com.TransactFlow.TransactFlow.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Samples for one request type on one worker thread; workers merge theirs at the end, so recording never contends
+class LatencyRecorder {
+
+    private long[] nanos = new long[1024];
+    private int size;
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+
+    void record(long elapsedNanos, int status) {
+        if (size == nanos.length) {
+            nanos = Arrays.copyOf(nanos, size * 2);
+        }
+        nanos[size++] = elapsedNanos;
+        statuses.merge(status, 1L, Long::sum);
+    }
+
+    void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.size; i++) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = other.nanos[i];
+        }
+        other.statuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+    }
+
+    int count() {
+        return size;
+    }
+
+    long errors() {
+        return statuses.entrySet().stream()
+                .filter(entry -> entry.getKey() >= 400 || entry.getKey() < 100)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    Map<Integer, Long> statuses() {
+        return statuses;
+    }
+
+    // Nearest-rank percentiles, in milliseconds
+    double[] percentilesMillis(double... percentiles) {
+        double[] result = new double[percentiles.length];
+        if (size == 0) {
+            return result;
+        }
+        long[] sorted = Arrays.copyOf(nanos, size);
+        Arrays.sort(sorted);
+        for (int i = 0; i < percentiles.length; i++) {
+            int rank = (int) Math.ceil(percentiles[i] / 100.0 * size);
+            result[i] = sorted[Math.max(0, Math.min(size - 1, rank - 1))] / 1_000_000.0;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+package com.TransactFlow.TransactFlow.loadtest;
+
+import com.TransactFlow.TransactFlow.dtos.request.RegisterRequestDto;
+import com.TransactFlow.TransactFlow.dtos.request.TransferRequestDto;
+import com.TransactFlow.TransactFlow.dtos.response.AuthResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// Talks to the running application over real HTTP, so every request crosses the servlet filters and controllers
+class LoadTestClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    // Status reported for requests that never got a response
+    static final int NO_RESPONSE = 0;
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    LoadTestClient(String baseUrl, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+    }
+
+    // Returns the JWT issued at registration
+    String register(String email, String password) throws IOException, InterruptedException {
+        RegisterRequestDto request = new RegisterRequestDto();
+        request.setEmail(email);
+        request.setPassword(password);
+        request.setFirstName("Load");
+        request.setLastName("Test");
+
+        HttpResponse<String> response = httpClient.send(
+                post("/api/auth/register", null, request), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Registering " + email + " failed with " + response.statusCode()
+                    + ": " + response.body());
+        }
+        return objectMapper.readValue(response.body(), AuthResponseDto.class).getToken();
+    }
+
+    int transfer(String token, String receiverEmail, BigDecimal amount) {
+        TransferRequestDto request = new TransferRequestDto(amount, "load test", receiverEmail);
+        try {
+            return send(post("/api/transactions/transfer", token, request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    int history(String token, int limit) {
+        return send(get("/api/transactions/history?limit=" + limit, token));
+    }
+
+    int balance(String token) {
+        return send(get("/api/transactions/balance", token));
+    }
+
+    // The body is read to the end and dropped, so latency covers the full response
+    private int send(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return NO_RESPONSE;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return NO_RESPONSE;
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, Object body) throws JsonProcessingException {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,270 @@
+package com.TransactFlow.TransactFlow.loadtest;
+
+import com.TransactFlow.TransactFlow.data.model.LedgerDirection;
+import com.TransactFlow.TransactFlow.data.model.LedgerEntry;
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.repository.LedgerEntryRepository;
+import com.TransactFlow.TransactFlow.repository.UserRepository;
+import com.TransactFlow.TransactFlow.service.BalanceStripingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Drives the running app end to end: pair with the inmemory profile to take MongoDB out of the measurement
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+@Slf4j
+public class LoadTestRunner implements ApplicationRunner {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+    private static final String PASSWORD = "load-test-password";
+    private static final int HISTORY_LIMIT = 20;
+
+    private final UserRepository userRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceStripingService balanceStripingService;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Value("${loadtest.users:200}")
+    private int users;
+
+    @Value("${loadtest.seed-balance:10000.00}")
+    private BigDecimal seedBalance;
+
+    @Value("${loadtest.concurrency:64}")
+    private int concurrency;
+
+    @Value("${loadtest.warmup:10s}")
+    private Duration warmup;
+
+    @Value("${loadtest.duration:60s}")
+    private Duration duration;
+
+    @Value("${loadtest.mix.transfer:40}")
+    private int transferWeight;
+
+    @Value("${loadtest.mix.history:30}")
+    private int historyWeight;
+
+    @Value("${loadtest.mix.balance:30}")
+    private int balanceWeight;
+
+    @Value("${loadtest.exit-on-finish:true}")
+    private boolean exitOnFinish;
+
+    private enum Operation { TRANSFER, HISTORY, BALANCE }
+
+    private List<String> emails;
+    private List<String> tokens;
+
+    // Every 200 from /transfer, warm-up included; each one must have left exactly one ledger row
+    private final LongAdder acceptedTransfers = new LongAdder();
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (users < 2) {
+            throw new IllegalArgumentException("loadtest.users must be at least 2");
+        }
+
+        LoadTestClient client = new LoadTestClient(
+                "http://localhost:" + environment.getProperty("local.server.port"), objectMapper);
+
+        setUp(client);
+
+        log.info("Warming up for {} with {} workers", warmup, concurrency);
+        drive(client, warmup);
+
+        log.info("Measuring for {} with {} workers", duration, concurrency);
+        Map<Operation, LatencyRecorder> results = drive(client, duration);
+        report(results);
+
+        boolean conserved = checkMoney();
+
+        if (exitOnFinish) {
+            int exitCode = SpringApplication.exit(applicationContext, () -> conserved ? 0 : 1);
+            System.exit(exitCode);
+        }
+    }
+
+    // Registers through the API, then seeds balances directly: there is no deposit endpoint
+    private void setUp(LoadTestClient client) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        emails = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            emails.add("loadtest-" + runId + "-" + i + "@example.com");
+        }
+
+        log.info("Registering {} users", users);
+        ExecutorService registration = Executors.newFixedThreadPool(Math.min(concurrency, users));
+        try {
+            List<Future<String>> registered = new ArrayList<>(users);
+            for (String email : emails) {
+                registered.add(registration.submit(() -> client.register(email, PASSWORD)));
+            }
+            tokens = new ArrayList<>(users);
+            for (Future<String> token : registered) {
+                tokens.add(token.get());
+            }
+        } finally {
+            registration.shutdownNow();
+        }
+
+        for (String email : emails) {
+            userRepository.credit(email, Money.of(seedBalance));
+        }
+    }
+
+    private Map<Operation, LatencyRecorder> drive(LoadTestClient client, Duration phase) throws Exception {
+        long deadline = System.nanoTime() + phase.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Map<Operation, LatencyRecorder>>> running = new ArrayList<>(concurrency);
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                running.add(workers.submit(() -> work(client, deadline)));
+            }
+
+            Map<Operation, LatencyRecorder> merged = recorders();
+            for (Future<Map<Operation, LatencyRecorder>> worker : running) {
+                worker.get().forEach((operation, recorder) -> merged.get(operation).merge(recorder));
+            }
+            return merged;
+        } finally {
+            workers.shutdownNow();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private Map<Operation, LatencyRecorder> work(LoadTestClient client, long deadline) {
+        Map<Operation, LatencyRecorder> recorders = recorders();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int totalWeight = transferWeight + historyWeight + balanceWeight;
+
+        while (System.nanoTime() < deadline) {
+            int user = random.nextInt(users);
+            String token = tokens.get(user);
+            int pick = random.nextInt(totalWeight);
+
+            Operation operation;
+            int status;
+            long start = System.nanoTime();
+
+            if (pick < transferWeight) {
+                operation = Operation.TRANSFER;
+                int receiver = (user + 1 + random.nextInt(users - 1)) % users;
+                // 1.00 to 50.00, so balances rarely run dry
+                BigDecimal amount = BigDecimal.valueOf(random.nextLong(100, 5001), 2);
+                status = client.transfer(token, emails.get(receiver), amount);
+                if (status == 200) {
+                    acceptedTransfers.increment();
+                }
+            } else if (pick < transferWeight + historyWeight) {
+                operation = Operation.HISTORY;
+                status = client.history(token, HISTORY_LIMIT);
+            } else {
+                operation = Operation.BALANCE;
+                status = client.balance(token);
+            }
+
+            recorders.get(operation).record(System.nanoTime() - start, status);
+        }
+        return recorders;
+    }
+
+    private void report(Map<Operation, LatencyRecorder> results) {
+        double seconds = duration.toMillis() / 1000.0;
+        long total = 0;
+
+        for (Map.Entry<Operation, LatencyRecorder> entry : results.entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            double[] latency = recorder.percentilesMillis(PERCENTILES);
+            total += recorder.count();
+
+            log.info(String.format(
+                    "%-8s %8d requests %6d errors %9.1f req/s | p50 %7.2f ms  p90 %7.2f ms  p99 %7.2f ms  p99.9 %7.2f ms  max %7.2f ms | statuses %s",
+                    entry.getKey(), recorder.count(), recorder.errors(), recorder.count() / seconds,
+                    latency[0], latency[1], latency[2], latency[3], latency[4], recorder.statuses()));
+        }
+
+        log.info(String.format("TOTAL    %8d requests %9.1f req/s", total, total / seconds));
+    }
+
+    // Transfers only move money between the test users, so the sum must come out unchanged,
+    // and every balance must equal the seed plus what the ledger says it received minus what it sent
+    private boolean checkMoney() {
+        Money seed = Money.of(seedBalance);
+        Money expectedTotal = Money.ofMinor(Math.multiplyExact(seed.getMinorUnits(), users));
+        Money actualTotal = Money.ZERO;
+        long ledgerRows = 0;
+        int mismatched = 0;
+
+        for (String email : emails) {
+            Money balance = balanceStripingService.balanceOf(userRepository.findByEmail(email).orElseThrow());
+            actualTotal = actualTotal.plus(balance);
+
+            Money expected = seed;
+            try (Stream<LedgerEntry> entries = ledgerEntryRepository
+                    .streamByAccountEmailOrderByCreatedAtDescTransactionIdDesc(email)) {
+                for (LedgerEntry entry : (Iterable<LedgerEntry>) entries::iterator) {
+                    if (entry.getDirection() == LedgerDirection.DEBIT) {
+                        expected = expected.minus(entry.getAmount());
+                        ledgerRows++;
+                    } else {
+                        expected = expected.plus(entry.getAmount());
+                    }
+                }
+            }
+
+            if (!expected.equals(balance)) {
+                mismatched++;
+                log.error("Balance of {} is {} but its ledger says {}", email, balance, expected);
+            }
+        }
+
+        boolean totalConserved = expectedTotal.equals(actualTotal);
+        boolean ledgerComplete = ledgerRows == acceptedTransfers.sum();
+
+        log.info("Money check: total {} (expected {}), {} ledger rows for {} accepted transfers, {} balances off their ledger",
+                actualTotal, expectedTotal, ledgerRows, acceptedTransfers.sum(), mismatched);
+
+        boolean conserved = totalConserved && ledgerComplete && mismatched == 0;
+        if (conserved) {
+            log.info("Money check PASSED");
+        } else {
+            log.error("Money check FAILED");
+        }
+        return conserved;
+    }
+
+    private Map<Operation, LatencyRecorder> recorders() {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        return recorders;
+    }
+}
@@ -0,0 +1,60 @@
+package com.TransactFlow.TransactFlow.outbox;
+
+import com.TransactFlow.TransactFlow.dtos.TransferEventDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends one JSON document per line; useful for local testing and as a hand-off to log shippers
+@Component
+@ConditionalOnProperty(name = "outbox.sink.file.path")
+@Slf4j
+public class FileTransferEventSink implements TransferEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileTransferEventSink(ObjectMapper objectMapper,
+                                 @Value("${outbox.sink.file.path}") Path path) throws IOException {
+        this.objectMapper = objectMapper;
+        this.path = path.toAbsolutePath();
+        if (this.path.getParent() != null) {
+            Files.createDirectories(this.path.getParent());
+        }
+        log.info("Writing transfer events to {}", this.path);
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void publish(List<TransferEventDto> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (TransferEventDto event : events) {
+            lines.append(objectMapper.writeValueAsString(event)).append('\n');
+        }
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // The relay checkpoints right after this returns, so the lines must be on disk first
+            channel.force(false);
+        }
+    }
+}
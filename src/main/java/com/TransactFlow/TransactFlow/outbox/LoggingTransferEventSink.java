@@ -0,0 +1,27 @@
+package com.TransactFlow.TransactFlow.outbox;
+
+import com.TransactFlow.TransactFlow.dtos.TransferEventDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "outbox.sink.log.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class LoggingTransferEventSink implements TransferEventSink {
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void publish(List<TransferEventDto> events) {
+        for (TransferEventDto event : events) {
+            log.info("Transfer event {} {}: {} -> {} {}", event.getEventId(), event.getReferenceNumber(),
+                    event.getSenderEmail(), event.getReceiverEmail(), event.getAmount());
+        }
+    }
+}
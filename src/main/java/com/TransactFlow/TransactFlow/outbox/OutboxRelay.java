@@ -0,0 +1,106 @@
+package com.TransactFlow.TransactFlow.outbox;
+
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.dtos.TransferEventDto;
+import com.TransactFlow.TransactFlow.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Tails the outbox (transactions still flagged outboxPending) and hands each batch to every sink, then clears the
+// flags. A crash or sink failure between delivery and checkpoint redelivers the batch: at-least-once, never lost.
+// Every node running the relay polls the same outbox, so multi-node deployments should enable it on one node.
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private final TransactionRepository transactionRepository;
+    private final List<TransferEventSink> sinks;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final Counter published;
+    private final Counter failed;
+    private final Timer lag;
+
+    public OutboxRelay(TransactionRepository transactionRepository,
+                       List<TransferEventSink> sinks,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.transactionRepository = transactionRepository;
+        this.sinks = sinks;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.published = Counter.builder("outbox.events")
+                .tag("result", "published")
+                .register(meterRegistry);
+        this.failed = Counter.builder("outbox.events")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.lag = Timer.builder("outbox.lag")
+                .description("Time from transfer commit to delivery to all sinks")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        if (sinks.isEmpty()) {
+            log.warn("Outbox relay has no sinks configured; transfer events stay pending");
+        } else {
+            log.info("Outbox relay delivering to {}", sinks.stream().map(TransferEventSink::name).toList());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void relay() {
+        if (sinks.isEmpty()) {
+            return;
+        }
+        // Drain a backlog in consecutive batches, but yield the scheduler thread now and then
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (!relayBatch()) {
+                return;
+            }
+        }
+    }
+
+    // Returns true when a full batch went out and more events may be waiting
+    boolean relayBatch() {
+        List<Transaction> pending = transactionRepository
+                .findByOutboxPendingTrueOrderByCreatedAtAscIdAsc(PageRequest.of(0, batchSize));
+        if (pending.isEmpty()) {
+            return false;
+        }
+
+        List<TransferEventDto> events = pending.stream().map(TransferEventDto::from).toList();
+        for (TransferEventSink sink : sinks) {
+            try {
+                sink.publish(events);
+            } catch (Exception e) {
+                failed.increment(events.size());
+                log.warn("Sink '{}' failed on {} transfer events, retrying next run: {}",
+                        sink.name(), events.size(), e.getMessage());
+                return false;
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionRepository.markPublished(events.stream().map(TransferEventDto::getEventId).toList(), now);
+
+        published.increment(events.size());
+        for (Transaction transaction : pending) {
+            lag.record(Duration.between(transaction.getCreatedAt(), now));
+        }
+        return pending.size() == batchSize;
+    }
+}
@@ -0,0 +1,14 @@
+package com.TransactFlow.TransactFlow.outbox;
+
+import com.TransactFlow.TransactFlow.dtos.TransferEventDto;
+
+import java.util.List;
+
+// Destination for relayed transfer events. A batch counts as delivered only when publish returns normally;
+// any exception leaves the whole batch pending, so a sink may see the same event more than once.
+public interface TransferEventSink {
+
+    String name();
+
+    void publish(List<TransferEventDto> events) throws Exception;
+}
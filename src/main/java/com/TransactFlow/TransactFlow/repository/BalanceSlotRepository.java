@@ -0,0 +1,10 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import com.TransactFlow.TransactFlow.data.model.BalanceSlot;
+
+import java.util.List;
+
+public interface BalanceSlotRepository extends DocumentRepository<BalanceSlot>, BalanceSlotRepositoryCustom {
+
+    List<BalanceSlot> findByAccountEmail(String accountEmail);
+}
@@ -0,0 +1,12 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import com.TransactFlow.TransactFlow.data.model.Money;
+
+public interface BalanceSlotRepositoryCustom {
+
+    // Adds to one slot of an account if the slot exists and is active; returns whether it did
+    boolean creditIfActive(String accountEmail, int slot, Money amount);
+
+    // Creates any of the account's first `slots` slots that are missing and sets the status of every slot it has
+    void setActive(String accountEmail, int slots, boolean active);
+}
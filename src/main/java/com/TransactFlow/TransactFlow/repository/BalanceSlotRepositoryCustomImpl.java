@@ -0,0 +1,47 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import com.TransactFlow.TransactFlow.data.model.BalanceSlot;
+import com.TransactFlow.TransactFlow.data.model.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class BalanceSlotRepositoryCustomImpl implements BalanceSlotRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    // Update by a known _id with the status in the filter: no read, and nothing returned but the match
+    @Override
+    public boolean creditIfActive(String accountEmail, int slot, Money amount) {
+        Query query = Query.query(Criteria.where("_id").is(BalanceSlot.id(accountEmail, slot))
+                .and("active").is(true));
+        Update update = new Update()
+                .inc("credited", amount.getMinorUnits())
+                .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.updateFirst(query, update, BalanceSlot.class).getMatchedCount() > 0;
+    }
+
+    // Ordered, so the status lands on slots the upserts have just created
+    @Override
+    public void setActive(String accountEmail, int slots, boolean active) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, BalanceSlot.class);
+        for (int slot = 0; slot < slots; slot++) {
+            bulk.upsert(Query.query(Criteria.where("_id").is(BalanceSlot.id(accountEmail, slot))), new Update()
+                    .setOnInsert("accountEmail", accountEmail)
+                    .setOnInsert("slot", slot)
+                    .setOnInsert("credited", 0L));
+        }
+        bulk.updateMulti(Query.query(Criteria.where("accountEmail").is(accountEmail)), new Update()
+                .set("active", active)
+                .set("updatedAt", LocalDateTime.now()));
+
+        bulk.execute();
+    }
+}
@@ -0,0 +1,17 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.ListPagingAndSortingRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.List;
+
+// MongoRepository without query by example, which nothing here uses. Repositories extend this instead, so the in-memory
+// profile implements every method a caller can reach; on Mongo, insert is served by SimpleMongoRepository as before.
+@NoRepositoryBean
+public interface DocumentRepository<T> extends ListCrudRepository<T, String>, ListPagingAndSortingRepository<T, String> {
+
+    <S extends T> S insert(S entity);
+
+    <S extends T> List<S> insert(Iterable<S> entities);
+}
@@ -0,0 +1,6 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import com.TransactFlow.TransactFlow.data.model.IdempotencyRecord;
+
+public interface IdempotencyRecordRepository extends DocumentRepository<IdempotencyRecord> {
+}
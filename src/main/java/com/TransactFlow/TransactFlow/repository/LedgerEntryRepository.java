@@ -0,0 +1,31 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import com.TransactFlow.TransactFlow.data.model.LedgerDirection;
+import com.TransactFlow.TransactFlow.data.model.LedgerEntry;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface LedgerEntryRepository extends DocumentRepository<LedgerEntry>, LedgerEntryRepositoryCustom {
+
+    // Keyset pages, newest first: the first page has no cursor, later pages start strictly after (createdAt, transactionId)
+    List<LedgerEntry> findByAccountEmail(String accountEmail, Pageable pageable);
+    List<LedgerEntry> findByAccountEmailAndDirection(String accountEmail, LedgerDirection direction, Pageable pageable);
+
+    @Query("{ 'accountEmail': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, 'transactionId': { '$lt': ?2 } } ] }")
+    List<LedgerEntry> findEntriesBefore(String accountEmail, LocalDateTime createdAt, ObjectId transactionId, Pageable pageable);
+
+    @Query("{ 'accountEmail': ?0, 'direction': ?1, "
+            + "'$or': [ { 'createdAt': { '$lt': ?2 } }, { 'createdAt': ?2, 'transactionId': { '$lt': ?3 } } ] }")
+    List<LedgerEntry> findEntriesBefore(String accountEmail, LedgerDirection direction, LocalDateTime createdAt,
+                                        ObjectId transactionId, Pageable pageable);
+
+    // Cursor-backed full history for exports; documents are pulled from the server in batches as the stream is consumed
+    @Meta(cursorBatchSize = 500)
+    Stream<LedgerEntry> streamByAccountEmailOrderByCreatedAtDescTransactionIdDesc(String accountEmail);
+}
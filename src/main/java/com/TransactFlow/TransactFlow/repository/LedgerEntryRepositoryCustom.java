@@ -0,0 +1,11 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import com.TransactFlow.TransactFlow.data.model.LedgerEntry;
+
+import java.util.Collection;
+
+public interface LedgerEntryRepositoryCustom {
+
+    // Unordered bulk insert that skips entries already present; returns how many were new
+    int insertMissing(Collection<LedgerEntry> entries);
+}
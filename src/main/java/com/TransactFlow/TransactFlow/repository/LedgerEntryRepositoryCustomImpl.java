@@ -0,0 +1,41 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import com.TransactFlow.TransactFlow.data.model.LedgerEntry;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class LedgerEntryRepositoryCustomImpl implements LedgerEntryRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public int insertMissing(Collection<LedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LedgerEntry.class);
+        bulk.insert(List.copyOf(entries));
+
+        try {
+            return bulk.execute().getInsertedCount();
+        } catch (BulkOperationException e) {
+            // Deterministic ids: a duplicate is an entry written earlier, anything else is a real failure
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+            return e.getResult().getInsertedCount();
+        }
+    }
+}
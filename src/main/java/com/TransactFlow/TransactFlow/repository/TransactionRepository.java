@@ -1,17 +1,27 @@
 package com.TransactFlow.TransactFlow.repository;
 
 import com.TransactFlow.TransactFlow.data.model.Transaction;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Meta;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TransactionRepository extends MongoRepository<Transaction, String> {
-    List<Transaction> findBySenderEmailOrderByCreatedAtDesc(String senderEmail);
-    List<Transaction> findByReceiverEmailOrderByCreatedAtDesc(String senderEmail);
+public interface TransactionRepository extends DocumentRepository<Transaction>, TransactionRepositoryCustom {
 
-    List<Transaction> findBySenderEmailOrReceiverEmailOrderByCreatedAtDesc(String senderEmail, String receiverEmail);
+    // Every transaction in _id order, fetched in batches as the stream is consumed; used by the ledger backfill
+    @Meta(cursorBatchSize = 1000)
+    Stream<Transaction> streamAllByOrderByIdAsc();
 
-    boolean existsByReferenceNumber(String referenceNumber);
+    Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
 
+    // Undelivered outbox events, oldest first, served from the partial outbox_pending_idx
+    List<Transaction> findByOutboxPendingTrueOrderByCreatedAtAscIdAsc(Pageable pageable);
+
+    // Transactions whose ledger entries are not yet confirmed, oldest first, served from the partial ledger_pending_idx
+    List<Transaction> findByLedgerPendingTrueAndCreatedAtBeforeOrderByCreatedAtAscIdAsc(LocalDateTime before,
+                                                                                      Pageable pageable);
 
 }
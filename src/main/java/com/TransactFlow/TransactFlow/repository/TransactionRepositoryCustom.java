@@ -0,0 +1,13 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface TransactionRepositoryCustom {
+
+    // Clears the outbox marker on delivered events in one multi-update; this is the relay's checkpoint
+    void markPublished(Collection<String> ids, LocalDateTime publishedAt);
+
+    // Clears the ledger marker once both entries of each transaction exist; this is the ledger repair's checkpoint
+    void markLedgerWritten(Collection<String> ids);
+}
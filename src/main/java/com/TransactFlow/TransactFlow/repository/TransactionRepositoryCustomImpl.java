@@ -0,0 +1,42 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void markPublished(Collection<String> ids, LocalDateTime publishedAt) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        // Unsetting the marker drops the document out of the partial outbox index
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(ids)),
+                new Update().unset("outboxPending").set("publishedAt", publishedAt),
+                Transaction.class);
+    }
+
+    @Override
+    public void markLedgerWritten(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(ids)),
+                new Update().unset("ledgerPending"),
+                Transaction.class);
+    }
+}
@@ -0,0 +1,15 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import com.TransactFlow.TransactFlow.data.model.AggregateGranularity;
+import com.TransactFlow.TransactFlow.data.model.TransferAggregate;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.List;
+
+public interface TransferAggregateRepository extends DocumentRepository<TransferAggregate>, TransferAggregateRepositoryCustom {
+
+    // Inclusive range of period keys, one account_period_idx range scan
+    @Query(value = "{ 'accountEmail': ?0, 'granularity': ?1, 'period': { '$gte': ?2, '$lte': ?3 } }",
+            sort = "{ 'period': 1 }")
+    List<TransferAggregate> findPeriods(String accountEmail, AggregateGranularity granularity, String fromPeriod, String toPeriod);
+}
@@ -0,0 +1,14 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+
+import java.util.Collection;
+
+public interface TransferAggregateRepositoryCustom {
+
+    // Adds the transfers to the day and month buckets of both parties in one unordered bulk of upserts
+    void record(Collection<Transaction> transactions);
+
+    // Drops every bucket and recomputes them from the transactions collection; returns the number of buckets
+    long rebuild();
+}
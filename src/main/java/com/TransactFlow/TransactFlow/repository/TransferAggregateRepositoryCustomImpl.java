@@ -0,0 +1,106 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import com.TransactFlow.TransactFlow.data.model.AggregateGranularity;
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.data.model.TransactionStatus;
+import com.TransactFlow.TransactFlow.data.model.TransferAggregate;
+import com.mongodb.client.MongoCollection;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TransferAggregateRepositoryCustomImpl implements TransferAggregateRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void record(Collection<Transaction> transactions) {
+        Collection<TransferAggregate> increments = TransferAggregate.incrementsFor(transactions);
+        if (increments.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TransferAggregate.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (TransferAggregate increment : increments) {
+            Update update = new Update()
+                    .setOnInsert("accountEmail", increment.getAccountEmail())
+                    .setOnInsert("granularity", increment.getGranularity().name())
+                    .setOnInsert("period", increment.getPeriod())
+                    .set("updatedAt", now);
+            if (increment.getSentCount() != null) {
+                update.inc("sentTotal", increment.getSentTotal().getMinorUnits()).inc("sentCount", increment.getSentCount());
+            }
+            if (increment.getReceivedCount() != null) {
+                update.inc("receivedTotal", increment.getReceivedTotal().getMinorUnits()).inc("receivedCount", increment.getReceivedCount());
+            }
+            bulk.upsert(Query.query(Criteria.where("_id").is(increment.getId())), update);
+        }
+
+        bulk.execute();
+    }
+
+    // Groups server side and $merges straight into the aggregates collection; the sent and received passes
+    // write disjoint fields of the same bucket documents. Transfers landing while this runs may be counted twice
+    // or not at all, so run it while transfers are paused.
+    @Override
+    public long rebuild() {
+        mongoTemplate.remove(new Query(), TransferAggregate.class);
+
+        MongoCollection<Document> transactions = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaction.class));
+        String into = mongoTemplate.getCollectionName(TransferAggregate.class);
+        String timezone = timezone(ZoneId.systemDefault());
+
+        for (AggregateGranularity granularity : AggregateGranularity.values()) {
+            transactions.aggregate(pipeline("senderEmail", "sent", granularity, timezone, into)).allowDiskUse(true).toCollection();
+            transactions.aggregate(pipeline("receiverEmail", "received", granularity, timezone, into)).allowDiskUse(true).toCollection();
+        }
+
+        return mongoTemplate.count(new Query(), TransferAggregate.class);
+    }
+
+    private static List<Document> pipeline(String partyField, String side, AggregateGranularity granularity,
+                                           String timezone, String into) {
+        Document period = new Document("$dateToString", new Document("format", granularity.getMongoFormat())
+                .append("date", "$createdAt")
+                .append("timezone", timezone));
+
+        return List.of(
+                new Document("$match", new Document("status", TransactionStatus.SUCCESS.name())),
+                new Document("$group", new Document("_id", new Document("account", "$" + partyField).append("period", period))
+                        // int64 cents, like the incremental path; MinorUnitMigration has converted older amounts
+                        .append("total", new Document("$sum", new Document("$toLong", "$amount")))
+                        .append("count", new Document("$sum", 1L))),
+                new Document("$project", new Document("_id", new Document("$concat", List.of("$_id.account", "|", "$_id.period")))
+                        .append("accountEmail", "$_id.account")
+                        .append("granularity", new Document("$literal", granularity.name()))
+                        .append("period", "$_id.period")
+                        .append(side + "Total", "$total")
+                        .append(side + "Count", "$count")
+                        .append("updatedAt", "$$NOW")),
+                new Document("$merge", new Document("into", into)
+                        .append("on", "_id")
+                        .append("whenMatched", "merge")
+                        .append("whenNotMatched", "insert")));
+    }
+
+    // LocalDateTime is stored as an instant in the JVM zone, so days are cut in that zone too
+    private static String timezone(ZoneId zone) {
+        if (zone instanceof ZoneOffset offset) {
+            return offset.getTotalSeconds() == 0 ? "+00:00" : offset.getId();
+        }
+        return zone.getId();
+    }
+}
@@ -1,14 +1,16 @@
 package com.TransactFlow.TransactFlow.repository;
 
 import com.TransactFlow.TransactFlow.data.model.User;
-import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends DocumentRepository<User>, UserRepositoryCustom {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    List<User> findByEmailIn(Collection<String> emails);
 }
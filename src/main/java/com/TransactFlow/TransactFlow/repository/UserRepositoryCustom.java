@@ -0,0 +1,31 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface UserRepositoryCustom {
+
+    // Debits the balance only if it covers the amount; returns the updated user or empty when the guard fails
+    Optional<User> debitIfSufficient(String email, Money amount);
+
+    // Credits an active account; returns the updated user or empty when the account is missing or inactive
+    Optional<User> creditIfActive(String email, Money amount);
+
+    // Unconditional credit, used to refund a debit whose matching credit could not be applied
+    Optional<User> credit(String email, Money amount);
+
+    // Applies one credit per active account in a single unordered bulk write; returns the accounts that were not credited
+    Set<String> creditAllIfActive(Map<String, Money> credits);
+
+    // Sets updateDate for many accounts in one unordered bulk; a time older than the stored one is ignored
+    void touchAll(Map<String, LocalDateTime> updateDates);
+
+    // Moves a balance slot's unfolded credits into the balance, provided the slot's folded mark is still `folded`.
+    // One atomic update of the user document, so a fold is either fully applied or not at all.
+    boolean foldSlot(String email, int slot, Money folded, Money credited);
+}
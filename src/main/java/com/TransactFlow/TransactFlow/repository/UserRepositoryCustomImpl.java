@@ -0,0 +1,129 @@
+package com.TransactFlow.TransactFlow.repository;
+
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<User> debitIfSufficient(String email, Money amount) {
+        Query query = Query.query(Criteria.where("email").is(email)
+                .and("balance").gte(amount.getMinorUnits()));
+        return incrementBalance(query, -amount.getMinorUnits());
+    }
+
+    @Override
+    public Optional<User> creditIfActive(String email, Money amount) {
+        Query query = Query.query(Criteria.where("email").is(email)
+                .and("active").is(true));
+        return incrementBalance(query, amount.getMinorUnits());
+    }
+
+    @Override
+    public Optional<User> credit(String email, Money amount) {
+        Query query = Query.query(Criteria.where("email").is(email));
+        return incrementBalance(query, amount.getMinorUnits());
+    }
+
+    @Override
+    public Set<String> creditAllIfActive(Map<String, Money> credits) {
+        if (credits.isEmpty()) {
+            return Set.of();
+        }
+
+        List<String> emails = new ArrayList<>(credits.keySet());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (String email : emails) {
+            bulk.updateOne(
+                    Query.query(Criteria.where("email").is(email).and("active").is(true)),
+                    new Update().inc("balance", credits.get(email).getMinorUnits()).set("updateDate", now));
+        }
+
+        Set<String> uncredited = new HashSet<>();
+        long matched;
+        try {
+            matched = bulk.execute().getMatchedCount();
+        } catch (BulkOperationException e) {
+            // Unordered: every operation without an error of its own was applied
+            e.getErrors().forEach(error -> uncredited.add(emails.get(error.getIndex())));
+            matched = e.getResult().getMatchedCount();
+        }
+        if (matched + uncredited.size() == emails.size()) {
+            return uncredited;
+        }
+
+        // The bulk result only counts matches, so find the receivers whose filter missed: deactivated or removed
+        // since the caller read them. Only an account flipping status again within these milliseconds is misjudged.
+        List<String> applied = emails.stream().filter(email -> !uncredited.contains(email)).toList();
+        Set<String> active = new HashSet<>();
+        for (User user : mongoTemplate.find(Query.query(Criteria.where("email").in(applied).and("active").is(true)), User.class)) {
+            active.add(user.getEmail());
+        }
+        applied.stream().filter(email -> !active.contains(email)).forEach(uncredited::add);
+        return uncredited;
+    }
+
+    // $max rather than $set: a flush arriving after a balance write has already bumped updateDate must not move it back
+    @Override
+    public void touchAll(Map<String, LocalDateTime> updateDates) {
+        if (updateDates.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        updateDates.forEach((email, updateDate) -> bulk.updateOne(
+                Query.query(Criteria.where("email").is(email)),
+                new Update().max("updateDate", updateDate)));
+
+        bulk.execute();
+    }
+
+    @Override
+    public boolean foldSlot(String email, int slot, Money folded, Money credited) {
+        String mark = "stripeFolded." + slot;
+        // A slot that was never folded has no mark yet
+        Criteria unchanged = folded.equals(Money.ZERO)
+                ? Criteria.where(mark).in(0L, null)
+                : Criteria.where(mark).is(folded.getMinorUnits());
+
+        Update update = new Update()
+                .inc("balance", credited.minus(folded).getMinorUnits())
+                .set(mark, credited.getMinorUnits())
+                .set("updateDate", LocalDateTime.now());
+
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("email").is(email)).addCriteria(unchanged), update, User.class)
+                .getModifiedCount() == 1;
+    }
+
+    // Balances are int64 cents, so the guard and the $inc are plain integer operations on the server
+    private Optional<User> incrementBalance(Query query, long deltaMinorUnits) {
+        Update update = new Update()
+                .inc("balance", deltaMinorUnits)
+                .set("updateDate", LocalDateTime.now());
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), User.class));
+    }
+}
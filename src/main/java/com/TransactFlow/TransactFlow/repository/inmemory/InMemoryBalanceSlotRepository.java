@@ -0,0 +1,63 @@
+package com.TransactFlow.TransactFlow.repository.inmemory;
+
+import com.TransactFlow.TransactFlow.data.model.BalanceSlot;
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.repository.BalanceSlotRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Ids are "<accountEmail>|<slot>", so a prefix range of one sorted id set finds an account's slots
+@Repository
+@Profile("inmemory")
+public class InMemoryBalanceSlotRepository extends InMemoryMongoRepository<BalanceSlot> implements BalanceSlotRepository {
+
+    private final NavigableSet<String> ids = new ConcurrentSkipListSet<>();
+
+    public InMemoryBalanceSlotRepository() {
+        super(BalanceSlot.class, BalanceSlot::getId, BalanceSlot::setId);
+    }
+
+    @Override
+    public List<BalanceSlot> findByAccountEmail(String accountEmail) {
+        String prefix = BalanceSlot.idPrefix(accountEmail);
+        return resolve(ids.subSet(prefix, true, prefix + Character.MAX_VALUE, false).stream()).toList();
+    }
+
+    @Override
+    public boolean creditIfActive(String accountEmail, int slot, Money amount) {
+        return modify(BalanceSlot.id(accountEmail, slot), current -> Boolean.TRUE.equals(current.getActive()), next -> {
+            next.setCredited(next.getCredited().plus(amount));
+            next.setUpdatedAt(LocalDateTime.now());
+        }).isPresent();
+    }
+
+    @Override
+    public void setActive(String accountEmail, int slots, boolean active) {
+        for (int slot = 0; slot < slots; slot++) {
+            String id = BalanceSlot.id(accountEmail, slot);
+            documents.putIfAbsent(id, BalanceSlot.builder().id(id).accountEmail(accountEmail).slot(slot).credited(Money.ZERO).build());
+            ids.add(id);
+        }
+        for (BalanceSlot slot : findByAccountEmail(accountEmail)) {
+            modify(slot.getId(), current -> true, next -> {
+                next.setActive(active);
+                next.setUpdatedAt(LocalDateTime.now());
+            });
+        }
+    }
+
+    @Override
+    protected void beforeStore(BalanceSlot previous, BalanceSlot current) {
+        ids.add(current.getId());
+    }
+
+    @Override
+    protected void afterRemove(BalanceSlot removed) {
+        ids.remove(removed.getId());
+    }
+}
@@ -0,0 +1,17 @@
+package com.TransactFlow.TransactFlow.repository.inmemory;
+
+import com.TransactFlow.TransactFlow.data.model.IdempotencyRecord;
+import com.TransactFlow.TransactFlow.repository.IdempotencyRecordRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+// No TTL: records live as long as the process, which is fine for a load-test run
+@Repository
+@Profile("inmemory")
+public class InMemoryIdempotencyRecordRepository extends InMemoryMongoRepository<IdempotencyRecord>
+        implements IdempotencyRecordRepository {
+
+    public InMemoryIdempotencyRecordRepository() {
+        super(IdempotencyRecord.class, IdempotencyRecord::getId, IdempotencyRecord::setId);
+    }
+}
@@ -0,0 +1,129 @@
+package com.TransactFlow.TransactFlow.repository.inmemory;
+
+import com.TransactFlow.TransactFlow.data.model.LedgerDirection;
+import com.TransactFlow.TransactFlow.data.model.LedgerEntry;
+import com.TransactFlow.TransactFlow.repository.LedgerEntryRepository;
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+// Per-account skip lists in (createdAt desc, transactionId desc) order stand in for account_created_idx,
+// and per account-and-direction ones for account_direction_created_idx. Every query asks for that order,
+// so the Pageable's sort is not re-applied.
+@Repository
+@Profile("inmemory")
+public class InMemoryLedgerEntryRepository extends InMemoryMongoRepository<LedgerEntry> implements LedgerEntryRepository {
+
+    private static final Comparator<EntryKey> NEWEST_FIRST = Comparator
+            .comparing(EntryKey::createdAt)
+            .thenComparing(EntryKey::transactionId)
+            .reversed();
+
+    private final ConcurrentMap<String, NavigableSet<EntryKey>> byAccount = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, NavigableSet<EntryKey>> byAccountAndDirection = new ConcurrentHashMap<>();
+
+    public InMemoryLedgerEntryRepository() {
+        super(LedgerEntry.class, LedgerEntry::getId, LedgerEntry::setId);
+    }
+
+    @Override
+    public List<LedgerEntry> findByAccountEmail(String accountEmail, Pageable pageable) {
+        return page(ids(index(byAccount, accountEmail)), pageable);
+    }
+
+    @Override
+    public List<LedgerEntry> findByAccountEmailAndDirection(String accountEmail, LedgerDirection direction, Pageable pageable) {
+        return page(ids(index(byAccountAndDirection, key(accountEmail, direction))), pageable);
+    }
+
+    @Override
+    public List<LedgerEntry> findEntriesBefore(String accountEmail, LocalDateTime createdAt, ObjectId transactionId,
+                                               Pageable pageable) {
+        return page(ids(index(byAccount, accountEmail).tailSet(cursor(createdAt, transactionId), false)), pageable);
+    }
+
+    @Override
+    public List<LedgerEntry> findEntriesBefore(String accountEmail, LedgerDirection direction, LocalDateTime createdAt,
+                                               ObjectId transactionId, Pageable pageable) {
+        return page(ids(index(byAccountAndDirection, key(accountEmail, direction))
+                .tailSet(cursor(createdAt, transactionId), false)), pageable);
+    }
+
+    @Override
+    public Stream<LedgerEntry> streamByAccountEmailOrderByCreatedAtDescTransactionIdDesc(String accountEmail) {
+        return resolve(ids(index(byAccount, accountEmail)));
+    }
+
+    @Override
+    public int insertMissing(Collection<LedgerEntry> entries) {
+        int inserted = 0;
+        for (LedgerEntry entry : entries) {
+            try {
+                insert(entry);
+                inserted++;
+            } catch (DuplicateKeyException e) {
+                // Written earlier; ids are derived from the transaction
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    protected void beforeStore(LedgerEntry previous, LedgerEntry current) {
+        if (previous != null) {
+            unindex(previous);
+        }
+        EntryKey key = entryKey(current);
+        byAccount.computeIfAbsent(current.getAccountEmail(), email -> new ConcurrentSkipListSet<>(NEWEST_FIRST)).add(key);
+        byAccountAndDirection.computeIfAbsent(key(current.getAccountEmail(), current.getDirection()),
+                email -> new ConcurrentSkipListSet<>(NEWEST_FIRST)).add(key);
+    }
+
+    @Override
+    protected void afterRemove(LedgerEntry removed) {
+        unindex(removed);
+    }
+
+    private void unindex(LedgerEntry entry) {
+        EntryKey key = entryKey(entry);
+        index(byAccount, entry.getAccountEmail()).remove(key);
+        index(byAccountAndDirection, key(entry.getAccountEmail(), entry.getDirection())).remove(key);
+    }
+
+    private static String key(String accountEmail, LedgerDirection direction) {
+        return accountEmail + "|" + direction;
+    }
+
+    private static NavigableSet<EntryKey> index(ConcurrentMap<String, NavigableSet<EntryKey>> index, String key) {
+        NavigableSet<EntryKey> keys = index.get(key);
+        return keys == null ? new ConcurrentSkipListSet<>(NEWEST_FIRST) : keys;
+    }
+
+    private static EntryKey entryKey(LedgerEntry entry) {
+        return new EntryKey(entry.getCreatedAt(), entry.getTransactionId(), entry.getId());
+    }
+
+    private static EntryKey cursor(LocalDateTime createdAt, ObjectId transactionId) {
+        return new EntryKey(createdAt, transactionId.toHexString(), null);
+    }
+
+    private static Stream<String> ids(NavigableSet<EntryKey> keys) {
+        return keys.stream().map(EntryKey::id);
+    }
+
+    // Ordered by (createdAt, transactionId) only: an account has at most one entry per transaction
+    private record EntryKey(LocalDateTime createdAt, String transactionId, String id) {
+    }
+}
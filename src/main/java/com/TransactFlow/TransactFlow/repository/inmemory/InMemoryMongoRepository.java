@@ -0,0 +1,218 @@
+package com.TransactFlow.TransactFlow.repository.inmemory;
+
+import com.TransactFlow.TransactFlow.repository.DocumentRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Heap-backed stand-in for a Mongo collection, used by the inmemory profile.
+// Documents are copied on the way in and out, so callers see the same detached entities the Mongo driver hands back.
+public abstract class InMemoryMongoRepository<T> implements DocumentRepository<T> {
+
+    protected final ConcurrentMap<String, T> documents = new ConcurrentHashMap<>();
+
+    private final Class<T> type;
+    private final Function<T, String> idOf;
+    private final BiConsumer<T, String> assignId;
+
+    protected InMemoryMongoRepository(Class<T> type, Function<T, String> idOf, BiConsumer<T, String> assignId) {
+        this.type = type;
+        this.idOf = idOf;
+        this.assignId = assignId;
+    }
+
+    // Called inside the per-document lock; may throw DuplicateKeyException to reject the write
+    protected void beforeStore(T previous, T current) {
+    }
+
+    protected void afterRemove(T removed) {
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        store(entity, false);
+        return entity;
+    }
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        store(entity, true);
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(entity -> inserted.add(insert(entity)));
+        return inserted;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return Optional.ofNullable(documents.get(id)).map(this::copy);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return documents.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return documents.values().stream().map(this::copy).toList();
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(documents::get)
+                .filter(document -> document != null)
+                .map(this::copy)
+                .toList();
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        return documents.values().stream()
+                .sorted(comparator(sort))
+                .map(this::copy)
+                .toList();
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        List<T> sorted = findAll(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(sorted, pageable, sorted.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        return new PageImpl<>(sorted.subList(from, to), pageable, sorted.size());
+    }
+
+    @Override
+    public long count() {
+        return documents.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        T removed = documents.remove(id);
+        if (removed != null) {
+            afterRemove(removed);
+        }
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(idOf.apply(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        List.copyOf(documents.keySet()).forEach(this::deleteById);
+    }
+
+    // Atomic read-modify-write of one document, the in-memory analogue of findAndModify with returnNew
+    protected Optional<T> modify(String id, Predicate<T> guard, Consumer<T> mutation) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        AtomicReference<T> updated = new AtomicReference<>();
+        documents.computeIfPresent(id, (key, current) -> {
+            if (!guard.test(current)) {
+                return current;
+            }
+            T next = copy(current);
+            mutation.accept(next);
+            beforeStore(current, next);
+            updated.set(copy(next));
+            return next;
+        });
+        return Optional.ofNullable(updated.get());
+    }
+
+    protected T copy(T entity) {
+        T copy = BeanUtils.instantiateClass(type);
+        BeanUtils.copyProperties(entity, copy);
+        return copy;
+    }
+
+    protected Stream<T> resolve(Stream<String> ids) {
+        return ids.map(documents::get)
+                .filter(document -> document != null)
+                .map(this::copy);
+    }
+
+    protected List<T> page(Stream<String> ids, Pageable pageable) {
+        Stream<T> matches = resolve(ids);
+        if (pageable.isPaged()) {
+            matches = matches.skip(pageable.getOffset()).limit(pageable.getPageSize());
+        }
+        return matches.toList();
+    }
+
+    private void store(T entity, boolean insertOnly) {
+        if (idOf.apply(entity) == null) {
+            assignId.accept(entity, new ObjectId().toHexString());
+        }
+        String id = idOf.apply(entity);
+        T stored = copy(entity);
+
+        documents.compute(id, (key, previous) -> {
+            if (insertOnly && previous != null) {
+                throw new DuplicateKeyException("Duplicate _id " + id + " in " + type.getSimpleName());
+            }
+            beforeStore(previous, stored);
+            return stored;
+        });
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<T> comparator(Sort sort) {
+        Comparator<T> comparator = (left, right) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<T> byProperty = Comparator.comparing(
+                    entity -> (Comparable) new BeanWrapperImpl(entity).getPropertyValue(order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+}
@@ -0,0 +1,134 @@
+package com.TransactFlow.TransactFlow.repository.inmemory;
+
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.repository.TransactionRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryTransactionRepository extends InMemoryMongoRepository<Transaction> implements TransactionRepository {
+
+    // Partial outbox_pending_idx, oldest first
+    private final NavigableSet<OutboxKey> outboxPending = new ConcurrentSkipListSet<>(Comparator
+            .comparing(OutboxKey::createdAt)
+            .thenComparing(OutboxKey::id));
+
+    // Partial ledger_pending_idx, oldest first
+    private final NavigableSet<OutboxKey> ledgerPending = new ConcurrentSkipListSet<>(Comparator
+            .comparing(OutboxKey::createdAt)
+            .thenComparing(OutboxKey::id));
+
+    // Unique index on referenceNumber
+    private final ConcurrentMap<String, String> idsByReference = new ConcurrentHashMap<>();
+
+    // Unique sparse index on idempotencyKey
+    private final ConcurrentMap<String, String> idsByIdempotencyKey = new ConcurrentHashMap<>();
+
+    public InMemoryTransactionRepository() {
+        super(Transaction.class, Transaction::getId, Transaction::setId);
+    }
+
+    // Generated ids are fixed-width hex ObjectIds, so string order is _id order
+    @Override
+    public Stream<Transaction> streamAllByOrderByIdAsc() {
+        return resolve(documents.keySet().stream().sorted());
+    }
+
+    @Override
+    public Optional<Transaction> findByIdempotencyKey(String idempotencyKey) {
+        return Optional.ofNullable(idsByIdempotencyKey.get(idempotencyKey)).flatMap(this::findById);
+    }
+
+    @Override
+    public List<Transaction> findByOutboxPendingTrueOrderByCreatedAtAscIdAsc(Pageable pageable) {
+        return page(outboxPending.stream().map(OutboxKey::id), pageable);
+    }
+
+    @Override
+    public List<Transaction> findByLedgerPendingTrueAndCreatedAtBeforeOrderByCreatedAtAscIdAsc(LocalDateTime before,
+                                                                                             Pageable pageable) {
+        return page(ledgerPending.headSet(new OutboxKey(before, ""), false).stream().map(OutboxKey::id), pageable);
+    }
+
+    @Override
+    public void markPublished(Collection<String> ids, LocalDateTime publishedAt) {
+        for (String id : ids) {
+            modify(id, transaction -> true, transaction -> {
+                transaction.setOutboxPending(null);
+                transaction.setPublishedAt(publishedAt);
+            });
+        }
+    }
+
+    @Override
+    public void markLedgerWritten(Collection<String> ids) {
+        for (String id : ids) {
+            modify(id, transaction -> true, transaction -> transaction.setLedgerPending(null));
+        }
+    }
+
+    @Override
+    protected void beforeStore(Transaction previous, Transaction current) {
+        String owner = idsByReference.putIfAbsent(current.getReferenceNumber(), current.getId());
+        if (owner != null && !owner.equals(current.getId())) {
+            throw new DuplicateKeyException("Duplicate referenceNumber " + current.getReferenceNumber());
+        }
+        if (current.getIdempotencyKey() != null) {
+            String keyOwner = idsByIdempotencyKey.putIfAbsent(current.getIdempotencyKey(), current.getId());
+            if (keyOwner != null && !keyOwner.equals(current.getId())) {
+                if (owner == null) {
+                    idsByReference.remove(current.getReferenceNumber(), current.getId());
+                }
+                throw new DuplicateKeyException("Duplicate idempotencyKey " + current.getIdempotencyKey());
+            }
+        }
+        if (previous != null) {
+            outboxPending.remove(outboxKey(previous));
+            ledgerPending.remove(outboxKey(previous));
+            // An update that keeps its reference must not release the entry it just re-claimed
+            if (!previous.getReferenceNumber().equals(current.getReferenceNumber())) {
+                idsByReference.remove(previous.getReferenceNumber(), previous.getId());
+            }
+            if (previous.getIdempotencyKey() != null && !previous.getIdempotencyKey().equals(current.getIdempotencyKey())) {
+                idsByIdempotencyKey.remove(previous.getIdempotencyKey(), previous.getId());
+            }
+        }
+        if (Boolean.TRUE.equals(current.getOutboxPending())) {
+            outboxPending.add(outboxKey(current));
+        }
+        if (Boolean.TRUE.equals(current.getLedgerPending())) {
+            ledgerPending.add(outboxKey(current));
+        }
+    }
+
+    @Override
+    protected void afterRemove(Transaction removed) {
+        outboxPending.remove(outboxKey(removed));
+        ledgerPending.remove(outboxKey(removed));
+        idsByReference.remove(removed.getReferenceNumber(), removed.getId());
+        if (removed.getIdempotencyKey() != null) {
+            idsByIdempotencyKey.remove(removed.getIdempotencyKey(), removed.getId());
+        }
+    }
+
+    private static OutboxKey outboxKey(Transaction transaction) {
+        return new OutboxKey(transaction.getCreatedAt(), transaction.getId());
+    }
+
+    private record OutboxKey(LocalDateTime createdAt, String id) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.TransactFlow.TransactFlow.repository.inmemory;
+
+import com.TransactFlow.TransactFlow.data.model.AggregateGranularity;
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.data.model.TransferAggregate;
+import com.TransactFlow.TransactFlow.repository.TransactionRepository;
+import com.TransactFlow.TransactFlow.repository.TransferAggregateRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Ids are "<accountEmail>|<period>", so one sorted id set stands in for account_period_idx:
+// every id between two keys of the same account shares that account's prefix.
+@Repository
+@Profile("inmemory")
+public class InMemoryTransferAggregateRepository extends InMemoryMongoRepository<TransferAggregate>
+        implements TransferAggregateRepository {
+
+    private final TransactionRepository transactionRepository;
+
+    private final NavigableSet<String> ids = new ConcurrentSkipListSet<>();
+
+    public InMemoryTransferAggregateRepository(TransactionRepository transactionRepository) {
+        super(TransferAggregate.class, TransferAggregate::getId, TransferAggregate::setId);
+        this.transactionRepository = transactionRepository;
+    }
+
+    @Override
+    public List<TransferAggregate> findPeriods(String accountEmail, AggregateGranularity granularity,
+                                               String fromPeriod, String toPeriod) {
+        String from = TransferAggregate.id(accountEmail, fromPeriod);
+        String to = TransferAggregate.id(accountEmail, toPeriod);
+        if (from.compareTo(to) > 0) {
+            return List.of();
+        }
+        return resolve(ids.subSet(from, true, to, true).stream())
+                .filter(aggregate -> aggregate.getGranularity() == granularity)
+                .toList();
+    }
+
+    @Override
+    public void record(Collection<Transaction> transactions) {
+        LocalDateTime now = LocalDateTime.now();
+        for (TransferAggregate increment : TransferAggregate.incrementsFor(transactions)) {
+            // Atomic per bucket, like the upsert with $inc
+            documents.compute(increment.getId(), (id, current) -> {
+                TransferAggregate next = current == null ? copy(increment) : copy(current);
+                if (current != null) {
+                    next.setSentTotal(plus(next.getSentTotal(), increment.getSentTotal()));
+                    next.setSentCount(plus(next.getSentCount(), increment.getSentCount()));
+                    next.setReceivedTotal(plus(next.getReceivedTotal(), increment.getReceivedTotal()));
+                    next.setReceivedCount(plus(next.getReceivedCount(), increment.getReceivedCount()));
+                }
+                next.setUpdatedAt(now);
+                return next;
+            });
+            ids.add(increment.getId());
+        }
+    }
+
+    @Override
+    public long rebuild() {
+        deleteAll();
+        record(transactionRepository.findAll());
+        return count();
+    }
+
+    @Override
+    protected void beforeStore(TransferAggregate previous, TransferAggregate current) {
+        ids.add(current.getId());
+    }
+
+    @Override
+    protected void afterRemove(TransferAggregate removed) {
+        ids.remove(removed.getId());
+    }
+
+    private static Money plus(Money left, Money right) {
+        return left == null ? right : right == null ? left : left.plus(right);
+    }
+
+    // Not a conditional expression: mixing Long and long there unboxes a null side
+    private static Long plus(Long left, Long right) {
+        if (left == null) {
+            return right;
+        }
+        return right == null ? left : Long.valueOf(left + right);
+    }
+}
@@ -0,0 +1,125 @@
+package com.TransactFlow.TransactFlow.repository.inmemory;
+
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.User;
+import com.TransactFlow.TransactFlow.repository.UserRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryUserRepository extends InMemoryMongoRepository<User> implements UserRepository {
+
+    // Unique secondary index on email, like the @Indexed(unique = true) in Mongo
+    private final ConcurrentMap<String, String> idsByEmail = new ConcurrentHashMap<>();
+
+    public InMemoryUserRepository() {
+        super(User.class, User::getId, User::setId);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        String id = idsByEmail.get(email);
+        return id == null ? Optional.empty() : findById(id);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return idsByEmail.containsKey(email);
+    }
+
+    @Override
+    public List<User> findByEmailIn(Collection<String> emails) {
+        return resolve(emails.stream().map(idsByEmail::get).filter(Objects::nonNull)).toList();
+    }
+
+    @Override
+    public Optional<User> debitIfSufficient(String email, Money amount) {
+        return modify(idsByEmail.get(email),
+                user -> !user.getBalance().isLessThan(amount),
+                user -> increment(user, Money.ZERO.minus(amount)));
+    }
+
+    @Override
+    public Optional<User> creditIfActive(String email, Money amount) {
+        return modify(idsByEmail.get(email), User::isActive, user -> increment(user, amount));
+    }
+
+    @Override
+    public Optional<User> credit(String email, Money amount) {
+        return modify(idsByEmail.get(email), user -> true, user -> increment(user, amount));
+    }
+
+    @Override
+    public Set<String> creditAllIfActive(Map<String, Money> credits) {
+        Set<String> uncredited = new HashSet<>();
+        credits.forEach((email, amount) -> {
+            if (creditIfActive(email, amount).isEmpty()) {
+                uncredited.add(email);
+            }
+        });
+        return uncredited;
+    }
+
+    @Override
+    public void touchAll(Map<String, LocalDateTime> updateDates) {
+        updateDates.forEach((email, updateDate) -> modify(idsByEmail.get(email),
+                user -> user.getUpdateDate() == null || user.getUpdateDate().isBefore(updateDate),
+                user -> user.setUpdateDate(updateDate)));
+    }
+
+    @Override
+    public boolean foldSlot(String email, int slot, Money folded, Money credited) {
+        String mark = String.valueOf(slot);
+        return modify(idsByEmail.get(email),
+                user -> folded.equals(foldedOf(user, mark)),
+                user -> {
+                    // copy() is shallow, so never mutate the stored map in place
+                    Map<String, Money> marks = user.getStripeFolded() == null
+                            ? new HashMap<>()
+                            : new HashMap<>(user.getStripeFolded());
+                    marks.put(mark, credited);
+                    user.setStripeFolded(marks);
+                    increment(user, credited.minus(folded));
+                }).isPresent();
+    }
+
+    @Override
+    protected void beforeStore(User previous, User current) {
+        String owner = idsByEmail.putIfAbsent(current.getEmail(), current.getId());
+        if (owner != null && !owner.equals(current.getId())) {
+            throw new DuplicateKeyException("Duplicate email " + current.getEmail());
+        }
+        if (previous != null && !previous.getEmail().equals(current.getEmail())) {
+            idsByEmail.remove(previous.getEmail(), previous.getId());
+        }
+    }
+
+    @Override
+    protected void afterRemove(User removed) {
+        idsByEmail.remove(removed.getEmail(), removed.getId());
+    }
+
+    private static Money foldedOf(User user, String mark) {
+        Money folded = user.getStripeFolded() == null ? null : user.getStripeFolded().get(mark);
+        return folded == null ? Money.ZERO : folded;
+    }
+
+    private void increment(User user, Money delta) {
+        user.setBalance(user.getBalance().plus(delta));
+        user.setUpdateDate(LocalDateTime.now());
+    }
+}
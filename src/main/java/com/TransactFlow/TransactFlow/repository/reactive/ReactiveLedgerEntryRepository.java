@@ -0,0 +1,19 @@
+package com.TransactFlow.TransactFlow.repository.reactive;
+
+import com.TransactFlow.TransactFlow.data.model.LedgerDirection;
+import com.TransactFlow.TransactFlow.data.model.LedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+// Same query shapes (and indexes) as LedgerEntryRepository; results arrive as the subscriber asks for them
+public interface ReactiveLedgerEntryRepository extends ReactiveMongoRepository<LedgerEntry, String> {
+
+    @Meta(cursorBatchSize = 500)
+    Flux<LedgerEntry> findByAccountEmail(String accountEmail, Pageable pageable);
+
+    @Meta(cursorBatchSize = 500)
+    Flux<LedgerEntry> findByAccountEmailAndDirection(String accountEmail, LedgerDirection direction, Pageable pageable);
+
+}
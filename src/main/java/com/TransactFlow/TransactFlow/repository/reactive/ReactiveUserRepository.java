@@ -0,0 +1,13 @@
+package com.TransactFlow.TransactFlow.repository.reactive;
+
+import com.TransactFlow.TransactFlow.data.model.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+// Read side of UserRepository for the reactive profile; balance changes stay on the blocking repository
+@Repository
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+    Mono<User> findByEmail(String email);
+    Mono<Boolean> existsByEmail(String email);
+}
@@ -2,30 +2,83 @@ package com.TransactFlow.TransactFlow.security;
 
 import com.TransactFlow.TransactFlow.data.model.User;
 import com.TransactFlow.TransactFlow.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 
 @Service
-@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    // Authentication runs on every request; keep recently seen principals off the database
+    private final Cache<String, UserDetails> userDetailsCache;
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${security.user-cache.max-size:50000}") long maxSize,
+                                    @Value("${security.user-cache.ttl:5m}") Duration ttl,
+                                    MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userDetailsCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userDetailsCache, "userDetails");
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        // Not cache.get(key, loader): that runs the Mongo read inside a synchronized bin and pins virtual threads
+        UserDetails cached = getCached(email);
+        if (cached != null) {
+            return cached;
+        }
+        UserDetails loaded = loadFromRepository(email);
+        cache(loaded);
+        return loaded;
+    }
+
+    // Shared with the reactive lookup so both stacks see the same entries and evictions
+    public UserDetails getCached(String email) {
+        return userDetailsCache.getIfPresent(email);
+    }
+
+    public void cache(UserDetails userDetails) {
+        userDetailsCache.put(userDetails.getUsername(), userDetails);
+    }
+
+    // Called whenever a user document changes so deactivation or a new password takes effect immediately
+    public void evict(String email) {
+        userDetailsCache.invalidate(email);
+    }
+
+    public void evictAll() {
+        userDetailsCache.invalidateAll();
+    }
+
+    private UserDetails loadFromRepository(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email " + email));
 
+        return toUserDetails(user);
+
+    }
+
+    static UserDetails toUserDetails(User user) {
         return new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
                 user.getPassword(),
                 new ArrayList<>()
         );
-
     }
 }
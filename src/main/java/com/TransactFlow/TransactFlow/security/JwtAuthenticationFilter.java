@@ -1,12 +1,16 @@
 package com.TransactFlow.TransactFlow.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,13 +18,20 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final JwtMetrics jwtMetrics;
+
+    // When on, the principal is built from the verified token alone; deactivation then only applies once the token expires
+    @Value("${security.jwt.claims-principal:false}")
+    private boolean claimsPrincipal;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -36,16 +47,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String jwt = authHeader.substring(7);
 
-        final String userEmail;
-
         try{
-            userEmail = jwtUtil.extractEmail(jwt);
+            // One signature check per token; the claims carry everything else we need
+            Claims claims = jwtMetrics.validate(jwtUtil, jwt);
+            final String userEmail = claims.getSubject();
 
             if(userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null){
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-
-
-            if(jwtUtil.validateToken(jwt, userEmail)){
+                UserDetails userDetails = claimsPrincipal
+                        ? new User(userEmail, "", List.of())
+                        : userDetailsService.loadUserByUsername(userEmail);
 
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
@@ -56,7 +66,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
-        }
 
     }catch (Exception e){
             logger.error("JWT validation failed: " + e.getMessage());
@@ -0,0 +1,74 @@
+package com.TransactFlow.TransactFlow.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+// Reactive counterpart of JwtAuthenticationFilter. Not a @Component: WebFlux would also run every WebFilter bean
+// outside the security chain, so ReactiveSecurityConfig builds this one itself.
+@RequiredArgsConstructor
+@Slf4j
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtUtil jwtUtil;
+    private final ReactiveUserDetailsService userDetailsService;
+    private final JwtMetrics jwtMetrics;
+    private final boolean claimsPrincipal;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        final String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (authHeader == null || !authHeader.startsWith("Bearer")) {
+            return chain.filter(exchange);
+        }
+
+        final String userEmail;
+        try {
+            // Signature checks are CPU-only and cached per token, so this is safe on the event loop
+            Claims claims = jwtMetrics.validate(jwtUtil, authHeader.substring(7));
+            userEmail = claims.getSubject();
+        } catch (Exception e) {
+            log.error("JWT validation failed: {}", e.getMessage());
+            return chain.filter(exchange);
+        }
+
+        if (userEmail == null) {
+            return chain.filter(exchange);
+        }
+
+        Mono<UserDetails> principal = claimsPrincipal
+                ? Mono.just(new User(userEmail, "", List.of()))
+                : userDetailsService.findByUsername(userEmail);
+
+        // Resolve the principal first and only then run the chain, so a lookup failure can't replay downstream filters
+        return principal
+                .<Optional<Authentication>>map(userDetails -> Optional.of(new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities())))
+                .onErrorResume(e -> {
+                    log.error("JWT principal lookup failed: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authToken -> authToken
+                        .map(token -> chain.filter(exchange)
+                                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(token)))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+}
@@ -0,0 +1,41 @@
+package com.TransactFlow.TransactFlow.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Token verification time as the authentication filters see it, cache hits included
+@Component
+public class JwtMetrics {
+
+    private final Timer valid;
+    private final Timer invalid;
+
+    public JwtMetrics(MeterRegistry meterRegistry) {
+        this.valid = parseTimer(meterRegistry, "valid");
+        this.invalid = parseTimer(meterRegistry, "invalid");
+    }
+
+    public Claims validate(JwtUtil jwtUtil, String token) {
+        long start = System.nanoTime();
+        try {
+            Claims claims = jwtUtil.validateToken(token);
+            valid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (RuntimeException e) {
+            invalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private static Timer parseTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("jwt.parse")
+                .description("JWT signature and expiry checks in the authentication filter")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,132 @@
+package com.TransactFlow.TransactFlow.security;
+
+import com.TransactFlow.TransactFlow.exceptions.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// BCrypt costs tens of milliseconds of CPU per call. Running it on the request threads lets a login storm occupy all of
+// them and starve transfers, so hashing gets its own core-sized pool with a bounded queue. When the queue is full the
+// request is rejected at once with ServiceBusyException (503 + Retry-After) instead of waiting behind the backlog.
+@Component
+@Slf4j
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    private final Timer queueWait;
+    private final Timer encodeTime;
+    private final Timer matchesTime;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${auth.hashing.threads:0}") int threads,
+                          @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                          @Value("${auth.hashing.retry-after:1s}") Duration retryAfter) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("auth.hashing.queue-capacity must be at least 1");
+        }
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + sequence.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueWait = Timer.builder("auth.hash.queue")
+                .description("Time password hashing requests wait for a hasher thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.encodeTime = hashTimer(meterRegistry, "encode");
+        this.matchesTime = hashTimer(meterRegistry, "matches");
+        this.rejected = Counter.builder("auth.hash.rejected")
+                .description("Password hashing requests turned away because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.hash.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashing requests waiting for a hasher thread")
+                .register(meterRegistry);
+
+        log.info("Password hashing on {} threads with a queue of {}", poolSize, queueCapacity);
+    }
+
+    public String encode(String rawPassword) {
+        return submit(encodeTime, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(matchesTime, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T submit(Timer hashTime, Callable<T> hash) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return hashTime.recordCallable(hash);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Authentication is busy, please retry shortly", retryAfterSeconds);
+        }
+        return await(future);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.hash")
+                .description("CPU-bound BCrypt work, excluding the queue wait")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
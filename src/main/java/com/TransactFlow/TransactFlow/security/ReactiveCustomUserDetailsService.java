@@ -0,0 +1,31 @@
+package com.TransactFlow.TransactFlow.security;
+
+import com.TransactFlow.TransactFlow.repository.reactive.ReactiveUserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCustomUserDetailsService implements ReactiveUserDetailsService {
+
+    private final ReactiveUserRepository reactiveUserRepository;
+
+    // Same cache as the servlet lookup, so the eviction listener covers both
+    private final CustomUserDetailsService customUserDetailsService;
+
+    @Override
+    public Mono<UserDetails> findByUsername(String email) {
+        UserDetails cached = customUserDetailsService.getCached(email);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return reactiveUserRepository.findByEmail(email)
+                .map(CustomUserDetailsService::toUserDetails)
+                .doOnNext(customUserDetailsService::cache);
+    }
+}
@@ -0,0 +1,110 @@
+package com.TransactFlow.TransactFlow.security;
+
+import com.TransactFlow.TransactFlow.config.RateLimitBucketStore;
+import com.TransactFlow.TransactFlow.config.RateLimitConfig;
+import com.TransactFlow.TransactFlow.config.RateLimitWebFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import reactor.core.publisher.Mono;
+
+import java.util.regex.Pattern;
+
+// WebFlux mirror of SecurityConfig for the reactive profile
+@Configuration
+@EnableWebFluxSecurity
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveSecurityConfig {
+
+    private final JwtUtil jwtUtil;
+    private final ReactiveCustomUserDetailsService userDetailsService;
+    private final JwtMetrics jwtMetrics;
+    private final RateLimitBucketStore rateLimitBucketStore;
+    private final RateLimitConfig rateLimitConfig;
+    private final ObjectMapper objectMapper;
+    private final ServerProperties serverProperties;
+
+    @Value("${security.jwt.claims-principal:false}")
+    private boolean claimsPrincipal;
+
+    @Value("${metrics.scrape.username:prometheus}")
+    private String scrapeUsername;
+
+    @Value("${metrics.scrape.password:}")
+    private String scrapePassword;
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    // Same rule as the servlet chain: actuator takes HTTP Basic as the scrape user, health stays open
+    @Bean
+    @Order(1)
+    public SecurityWebFilterChain actuatorWebFilterChain(ServerHttpSecurity http, PasswordEncoder passwordEncoder) {
+        UserDetails scrapeUser = scrapePassword.isBlank() ? null : User.withUsername(scrapeUsername)
+                .password(passwordEncoder.encode(scrapePassword))
+                .roles("METRICS")
+                .build();
+        // A fresh copy per lookup, so nothing downstream can erase the stored password
+        ReactiveUserDetailsService scrapeUsers = username -> Mono.justOrEmpty(scrapeUser)
+                .filter(user -> user.getUsername().equals(username))
+                .map(user -> User.withUserDetails(user).build());
+        UserDetailsRepositoryReactiveAuthenticationManager scrapeAuthentication =
+                new UserDetailsRepositoryReactiveAuthenticationManager(scrapeUsers);
+        scrapeAuthentication.setPasswordEncoder(passwordEncoder);
+
+        http
+                .securityMatcher(ServerWebExchangeMatchers.pathMatchers("/actuator/**"))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers("/actuator/health").permitAll()
+                        .anyExchange().hasRole("METRICS")
+                )
+                .httpBasic(basic -> basic.authenticationManager(scrapeAuthentication))
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers("/api/auth/**").permitAll()
+                        .pathMatchers("/api/transactions/**").permitAll()
+                        .anyExchange().authenticated()
+                )
+                // Stateless, like the servlet chain's SessionCreationPolicy.STATELESS
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtUtil, userDetailsService, jwtMetrics, claimsPrincipal),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                // After authentication so signed-in callers are limited per user rather than per IP
+                .addFilterAfter(new RateLimitWebFilter(rateLimitBucketStore, rateLimitConfig, objectMapper,
+                                Pattern.compile(serverProperties.getTomcat().getRemoteip().getInternalProxies())),
+                        SecurityWebFiltersOrder.AUTHENTICATION);
+        return http.build();
+    }
+}
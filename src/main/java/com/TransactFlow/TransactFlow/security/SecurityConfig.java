@@ -2,19 +2,29 @@ package com.TransactFlow.TransactFlow.security;
 
 
 import com.TransactFlow.TransactFlow.config.RateLimitFilter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class SecurityConfig {
 
@@ -22,12 +32,52 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${metrics.scrape.username:prometheus}")
+    private String scrapeUsername;
+
+    // Blank leaves the scrape user out, so every actuator endpoint but health answers 401
+    @Value("${metrics.scrape.password:}")
+    private String scrapePassword;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
+    // Actuator answers only HTTP Basic as the scrape user: a scraper cannot renew JWTs, and the metrics name
+    // internal hosts, queues and traffic that should not be public
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder) throws Exception {
+        InMemoryUserDetailsManager scrapeUsers = new InMemoryUserDetailsManager();
+        if (!scrapePassword.isBlank()) {
+            scrapeUsers.createUser(User.withUsername(scrapeUsername)
+                    .password(passwordEncoder.encode(scrapePassword))
+                    .roles("METRICS")
+                    .build());
+        }
+        DaoAuthenticationProvider scrapeAuthentication = new DaoAuthenticationProvider(scrapeUsers);
+        scrapeAuthentication.setPasswordEncoder(passwordEncoder);
+
+        http
+                .securityMatcher("/actuator/**")
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health").permitAll()
+                        .anyRequest().hasRole("METRICS")
+                )
+                // Set the 401 directly: a sendError would be re-dispatched to /error and answered by the main chain
+                .httpBasic(basic -> basic.authenticationEntryPoint((request, response, e) -> {
+                    response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Basic realm=\"actuator\"");
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                }))
+                .authenticationManager(new ProviderManager(scrapeAuthentication))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        return http.build();
+    }
+
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
@@ -0,0 +1,27 @@
+package com.TransactFlow.TransactFlow.security;
+
+import com.TransactFlow.TransactFlow.data.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+// Full-document saves are how accounts get deactivated or re-passworded; targeted balance updates don't fire these events
+@Component
+@RequiredArgsConstructor
+public class UserDetailsCacheEvictionListener extends AbstractMongoEventListener<User> {
+
+    private final CustomUserDetailsService userDetailsService;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        userDetailsService.evict(event.getSource().getEmail());
+    }
+
+    // Delete events only carry the query, not the email, so start from scratch
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        userDetailsService.evictAll();
+    }
+}
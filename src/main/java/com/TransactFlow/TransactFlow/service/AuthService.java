@@ -1,6 +1,7 @@
 package com.TransactFlow.TransactFlow.service;
 
 
+import com.TransactFlow.TransactFlow.data.model.Money;
 import com.TransactFlow.TransactFlow.data.model.User;
 import com.TransactFlow.TransactFlow.dtos.request.LoginRequestDto;
 import com.TransactFlow.TransactFlow.dtos.request.RegisterRequestDto;
@@ -11,21 +12,25 @@ import com.TransactFlow.TransactFlow.exceptions.UserNotFoundException;
 import com.TransactFlow.TransactFlow.mapper.UserMapper;
 import com.TransactFlow.TransactFlow.repository.UserRepository;
 import com.TransactFlow.TransactFlow.security.JwtUtil;
+import com.TransactFlow.TransactFlow.security.PasswordHasher;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
     private final UserMapper userMapper;
+    private final LastLoginRecorder lastLoginRecorder;
+
+    // String.matches compiles the regex on every call
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
 
 
     public AuthResponseDto register(RegisterRequestDto registerRequest) {
@@ -36,9 +41,9 @@ public class AuthService {
         }
 
         User user = userMapper.toEntity(registerRequest);
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+        user.setPassword(passwordHasher.encode(registerRequest.getPassword()));
 
-        user.setBalance(new BigDecimal("00.00"));
+        user.setBalance(Money.ZERO);
 
         User savedUser = userRepository.save(user);
 
@@ -60,12 +65,11 @@ public class AuthService {
 
         }
 
-        if(!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())){
+        if(!passwordHasher.matches(loginRequest.getPassword(), user.getPassword())){
             throw new InvalidCredentialsException("Invalid credentials");
         }
 
-        user.setUpdateDate(LocalDateTime.now());
-        userRepository.save(user);
+        lastLoginRecorder.record(user.getEmail(), LocalDateTime.now());
 
         String token = jwtUtil.generateToken(user.getEmail());
 
@@ -106,9 +110,8 @@ public class AuthService {
     }
 
 
-    private boolean isValidEmail(String email) {
-        String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
-        return email.matches(emailRegex);
+    boolean isValidEmail(String email) {
+        return EMAIL_PATTERN.matcher(email).matches();
     }
 }
 
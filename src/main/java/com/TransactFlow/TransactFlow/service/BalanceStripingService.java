@@ -0,0 +1,172 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.BalanceSlot;
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.User;
+import com.TransactFlow.TransactFlow.repository.BalanceSlotRepository;
+import com.TransactFlow.TransactFlow.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// Opt-in striped balances for high fan-in receivers (balance.striping.accounts).
+// Credits to a striped account $inc one of K BalanceSlot documents at random instead of the user document, so they
+// stop serializing on it. Its spendable balance is the user balance plus every slot's unfolded credits; debits still
+// take the guarded $inc on the user document and fold the slots in first when that alone does not cover them.
+// Compaction folds slots back periodically so the user document stays close to the full balance, and copies the
+// user's active flag onto the slots, where striped credits check it.
+@Service
+@Slf4j
+public class BalanceStripingService {
+
+    private final UserRepository userRepository;
+    private final BalanceSlotRepository balanceSlotRepository;
+    private final Set<String> stripedAccounts;
+    private final int slots;
+
+    public BalanceStripingService(UserRepository userRepository,
+                                  BalanceSlotRepository balanceSlotRepository,
+                                  @Value("${balance.striping.accounts:}") Set<String> stripedAccounts,
+                                  @Value("${balance.striping.slots:8}") int slots) {
+        if (slots < 1) {
+            throw new IllegalArgumentException("balance.striping.slots must be at least 1");
+        }
+        this.userRepository = userRepository;
+        this.balanceSlotRepository = balanceSlotRepository;
+        this.stripedAccounts = stripedAccounts.stream()
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.slots = slots;
+
+        if (!this.stripedAccounts.isEmpty()) {
+            log.info("Striping the balances of {} accounts over {} slots", this.stripedAccounts.size(), slots);
+        }
+    }
+
+    public boolean isStriped(String email) {
+        return stripedAccounts.contains(email);
+    }
+
+    public Optional<User> debitIfSufficient(String email, Money amount) {
+        Optional<User> debited = userRepository.debitIfSufficient(email, amount);
+        if (debited.isPresent() || !isStriped(email)) {
+            return debited;
+        }
+        // The user document alone may be short while the slots hold the rest
+        return fold(email) ? userRepository.debitIfSufficient(email, amount) : debited;
+    }
+
+    // A striped credit checks the status copied onto its slot in the same update, so no read precedes it. A miss
+    // means the slot is new or says inactive: the user's own status is copied over and the credit tried once more.
+    public boolean creditIfActive(String email, Money amount) {
+        if (!isStriped(email)) {
+            return userRepository.creditIfActive(email, amount).isPresent();
+        }
+        int slot = ThreadLocalRandom.current().nextInt(slots);
+        if (balanceSlotRepository.creditIfActive(email, slot, amount)) {
+            return true;
+        }
+        boolean active = userRepository.findByEmail(email).map(User::isActive).orElse(false);
+        balanceSlotRepository.setActive(email, slots, active);
+        return active && balanceSlotRepository.creditIfActive(email, slot, amount);
+    }
+
+    // Returns the accounts that were not credited because they are missing or inactive
+    public Set<String> creditAllIfActive(Map<String, Money> credits) {
+        Set<String> uncredited = new HashSet<>();
+        Map<String, Money> unstriped = new HashMap<>();
+        credits.forEach((email, amount) -> {
+            if (!isStriped(email)) {
+                unstriped.put(email, amount);
+            } else if (!creditIfActive(email, amount)) {
+                uncredited.add(email);
+            }
+        });
+        uncredited.addAll(userRepository.creditAllIfActive(unstriped));
+        return uncredited;
+    }
+
+    // Takes back a credit that was applied but cannot be recorded, as a guarded debit: a receiver that has already
+    // spent it is not driven negative, and false is returned for the caller to reconcile. Striped accounts fold their
+    // slots in first when their user document alone falls short.
+    public boolean reverseCredit(String email, Money amount) {
+        return debitIfSufficient(email, amount).isPresent();
+    }
+
+    // Read the user first: a fold landing between the two reads is then counted once, in the slots, never missed
+    public Money balanceOf(User user) {
+        if (!isStriped(user.getEmail())) {
+            return user.getBalance();
+        }
+        Money balance = user.getBalance();
+        for (BalanceSlot slot : balanceSlotRepository.findByAccountEmail(user.getEmail())) {
+            balance = balance.plus(slot.getCredited().minus(foldedOf(user, slot.getSlot())));
+        }
+        return balance;
+    }
+
+    // Folds every slot of the account into its balance; returns whether any money moved. Each slot folds with a
+    // compare-and-set on the user's mark for it, so concurrent folds from several nodes cannot apply a slot twice.
+    public boolean fold(String email) {
+        Optional<User> user = userRepository.findByEmail(email);
+        return user.isPresent() && fold(user.get(), balanceSlotRepository.findByAccountEmail(email));
+    }
+
+    // Slots of accounts dropped from the configuration are folded too, so no money is left stranded in them
+    @Scheduled(fixedDelayString = "${balance.striping.compaction-interval-ms:5000}")
+    public void compact() {
+        Set<String> accounts = new HashSet<>(stripedAccounts);
+        for (BalanceSlot slot : balanceSlotRepository.findAll()) {
+            accounts.add(slot.getAccountEmail());
+        }
+        for (String email : accounts) {
+            try {
+                compact(email);
+            } catch (RuntimeException e) {
+                log.warn("Could not compact the balance slots of {}: {}", email, e.getMessage());
+            }
+        }
+    }
+
+    // A deactivation is written to the user document alone; this is where the account's slots stop taking credits
+    private void compact(String email) {
+        Optional<User> user = userRepository.findByEmail(email);
+        List<BalanceSlot> accountSlots = balanceSlotRepository.findByAccountEmail(email);
+        user.ifPresent(found -> fold(found, accountSlots));
+
+        boolean active = user.map(User::isActive).orElse(false);
+        if (accountSlots.stream().anyMatch(slot -> !Objects.equals(slot.getActive(), active))) {
+            balanceSlotRepository.setActive(email, slots, active);
+        }
+    }
+
+    private boolean fold(User user, List<BalanceSlot> accountSlots) {
+        boolean moved = false;
+        for (BalanceSlot slot : accountSlots) {
+            Money folded = foldedOf(user, slot.getSlot());
+            if (slot.getCredited().equals(folded)) {
+                continue;
+            }
+            // Losing the race means another fold got there first; its result is just as good
+            moved |= userRepository.foldSlot(user.getEmail(), slot.getSlot(), folded, slot.getCredited());
+        }
+        return moved;
+    }
+
+    private static Money foldedOf(User user, int slot) {
+        Money folded = user.getStripeFolded() == null ? null : user.getStripeFolded().get(String.valueOf(slot));
+        return folded == null ? Money.ZERO : folded;
+    }
+}
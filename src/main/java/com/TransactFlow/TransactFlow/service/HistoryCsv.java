@@ -0,0 +1,47 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.dtos.TransactionHistoryDto;
+
+import java.math.BigDecimal;
+
+// One CSV layout for every export path, blocking or reactive
+final class HistoryCsv {
+
+    static final String HEADER =
+            "transactionId,referenceNumber,otherParty,amount,description,status,balanceBefore,balanceAfter,timestamp\n";
+
+    private static final String FORMULA_TRIGGERS = "=+-@\t\r";
+
+    private HistoryCsv() {
+    }
+
+    static String row(TransactionHistoryDto dto) {
+        StringBuilder row = new StringBuilder(128);
+        row.append(csv(dto.getTransactionId())).append(',')
+                .append(csv(dto.getReferenceNumber())).append(',')
+                .append(csv(dto.getOtherParty())).append(',')
+                .append(csv(dto.getAmount())).append(',')
+                .append(csv(dto.getDescription())).append(',')
+                .append(csv(dto.getStatus())).append(',')
+                .append(csv(dto.getBalanceBefore())).append(',')
+                .append(csv(dto.getBalanceAfter())).append(',')
+                .append(csv(dto.getTimestamp())).append('\n');
+        return row.toString();
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        // Spreadsheets run text cells starting with these as formulas; descriptions and emails are user-supplied.
+        // Numbers are left alone so negative amounts stay numeric.
+        if (!(value instanceof BigDecimal) && !text.isEmpty() && FORMULA_TRIGGERS.indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
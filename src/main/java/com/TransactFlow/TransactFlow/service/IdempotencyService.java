@@ -0,0 +1,296 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.IdempotencyRecord;
+import com.TransactFlow.TransactFlow.data.model.IdempotencyStatus;
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.dtos.request.TransferRequestDto;
+import com.TransactFlow.TransactFlow.dtos.response.TransferResponseDto;
+import com.TransactFlow.TransactFlow.exceptions.IdempotencyConflictException;
+import com.TransactFlow.TransactFlow.exceptions.InsufficientBalanceException;
+import com.TransactFlow.TransactFlow.exceptions.InvalidTransactionException;
+import com.TransactFlow.TransactFlow.exceptions.TransferNotRecordedException;
+import com.TransactFlow.TransactFlow.exceptions.UserNotFoundException;
+import com.TransactFlow.TransactFlow.repository.IdempotencyRecordRepository;
+import com.TransactFlow.TransactFlow.repository.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionRepository transactionRepository;
+    private final Duration waitTimeout;
+
+    // Completed outcomes, so most retries are answered without a database read
+    private final Cache<String, TransferResponseDto> completed;
+
+    // Requests currently executing on this node; a concurrent duplicate waits on the original instead of running
+    private final ConcurrentMap<String, CompletableFuture<TransferResponseDto>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              TransactionRepository transactionRepository,
+                              @Value("${idempotency.cache.max-size:10000}") long cacheMaxSize,
+                              @Value("${idempotency.cache.ttl:10m}") Duration cacheTtl,
+                              @Value("${idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionRepository = transactionRepository;
+        this.waitTimeout = waitTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    // The transfer is handed the sender-scoped key, which it must record on the transaction it inserts
+    public TransferResponseDto execute(String senderEmail, String idempotencyKey, TransferRequestDto request,
+                                       Function<String, TransferResponseDto> transfer) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String id = senderEmail + ":" + idempotencyKey;
+
+        TransferResponseDto cached = completed.getIfPresent(id);
+        if (cached != null) {
+            return replay(cached, request);
+        }
+
+        CompletableFuture<TransferResponseDto> mine = new CompletableFuture<>();
+        CompletableFuture<TransferResponseDto> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            return replay(await(running), request);
+        }
+
+        try {
+            TransferResponseDto response = claimAndRun(id, request, transfer);
+            completed.put(id, response);
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    private TransferResponseDto claimAndRun(String id, TransferRequestDto request,
+                                            Function<String, TransferResponseDto> transfer) {
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .id(id)
+                .status(IdempotencyStatus.IN_PROGRESS)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        try {
+            idempotencyRecordRepository.insert(record);
+        } catch (DuplicateKeyException e) {
+            // Another node, or an earlier attempt, owns this key
+            return replay(awaitStoredOutcome(id, request, transfer), request);
+        }
+
+        return run(record, request, transfer);
+    }
+
+    // The record only tracks progress. The transfer carries the key on its transaction under a unique index, so the
+    // transactions collection decides whether the key's transfer happened, and a record that a crash or a failed write
+    // left behind is settled against it.
+    private TransferResponseDto run(IdempotencyRecord record, TransferRequestDto request,
+                                    Function<String, TransferResponseDto> transfer) {
+        TransferResponseDto response;
+        try {
+            response = transfer.apply(record.getId());
+        } catch (RuntimeException e) {
+            return settleFailure(record, request, e);
+        }
+
+        complete(record, response);
+        return response;
+    }
+
+    private TransferResponseDto settleFailure(IdempotencyRecord record, TransferRequestDto request, RuntimeException e) {
+        if (isRejection(e)) {
+            // Rejected before any money moved, so release the key and let a retry be evaluated afresh
+            release(record, e);
+            throw e;
+        }
+
+        // The transfer may have been recorded before the failure, or by a concurrent attempt that won the key
+        Optional<TransferResponseDto> recorded;
+        try {
+            recorded = recordedTransfer(record.getId());
+        } catch (RuntimeException lookupFailure) {
+            e.addSuppressed(lookupFailure);
+            recorded = Optional.empty();
+        }
+        if (recorded.isPresent()) {
+            complete(record, recorded.get());
+            return replay(recorded.get(), request);
+        }
+
+        if (e instanceof TransferNotRecordedException) {
+            // Undone because it could not be recorded: no money moved
+            release(record, e);
+        } else {
+            // Money may have moved; a retry settles the key against the transactions collection
+            log.error("Transfer for Idempotency-Key {} failed after funds may have moved: {}", record.getId(), e.getMessage());
+            record.setStatus(IdempotencyStatus.FAILED);
+            record.setError(e.getMessage());
+            try {
+                idempotencyRecordRepository.save(record);
+            } catch (RuntimeException saveFailure) {
+                e.addSuppressed(saveFailure);
+            }
+        }
+        throw e;
+    }
+
+    private TransferResponseDto awaitStoredOutcome(String id, TransferRequestDto request,
+                                                   Function<String, TransferResponseDto> transfer) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        while (true) {
+            Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(id);
+
+            if (stored.isEmpty()) {
+                // The owner failed and released the key
+                return claimAndRun(id, request, transfer);
+            }
+            if (stored.get().getStatus() == IdempotencyStatus.COMPLETED) {
+                return stored.get().getResponse();
+            }
+            // A failed owner, or one holding the key past the wait, may still have recorded the transfer
+            if (stored.get().getStatus() == IdempotencyStatus.FAILED || System.nanoTime() > deadline) {
+                return reconcile(stored.get(), request, transfer);
+            }
+
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyConflictException("Interrupted while waiting for the original request");
+            }
+        }
+    }
+
+    private TransferResponseDto reconcile(IdempotencyRecord record, TransferRequestDto request,
+                                          Function<String, TransferResponseDto> transfer) {
+        Optional<TransferResponseDto> recorded = recordedTransfer(record.getId());
+        if (recorded.isPresent()) {
+            complete(record, recorded.get());
+            return recorded.get();
+        }
+
+        // Nothing was recorded: the owner failed, died or stalled before its insert. Should it still be running, the
+        // unique idempotencyKey lets only one of the two transfers be recorded, and the other is undone.
+        log.warn("Idempotency-Key {} was left {} with no recorded transfer; running it again", record.getId(), record.getStatus());
+        record.setStatus(IdempotencyStatus.IN_PROGRESS);
+        record.setError(null);
+        record.setCreatedAt(LocalDateTime.now());
+        idempotencyRecordRepository.save(record);
+        return run(record, request, transfer);
+    }
+
+    // A failed write here loses nothing: the next retry settles the key against the transaction
+    private void complete(IdempotencyRecord record, TransferResponseDto response) {
+        record.setStatus(IdempotencyStatus.COMPLETED);
+        record.setResponse(response);
+        record.setError(null);
+        try {
+            idempotencyRecordRepository.save(record);
+        } catch (RuntimeException e) {
+            log.warn("Could not store the outcome of Idempotency-Key {}: {}", record.getId(), e.getMessage());
+        }
+    }
+
+    // Should the delete fail, the key stays claimed until a retry waits it out and runs it again; the original failure is
+    // still what surfaces
+    private void release(IdempotencyRecord record, RuntimeException cause) {
+        try {
+            idempotencyRecordRepository.deleteById(record.getId());
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private Optional<TransferResponseDto> recordedTransfer(String id) {
+        return transactionRepository.findByIdempotencyKey(id).map(IdempotencyService::toResponse);
+    }
+
+    private static TransferResponseDto toResponse(Transaction transaction) {
+        return TransferResponseDto.builder()
+                .transactionId(transaction.getId())
+                .referenceNumber(transaction.getReferenceNumber())
+                .senderEmail(transaction.getSenderEmail())
+                .receiverEmail(transaction.getReceiverEmail())
+                .amount(transaction.getAmount().toBigDecimal())
+                .description(transaction.getDescription())
+                .status(transaction.getStatus())
+                .newBalance(transaction.getSenderBalanceAfter() == null ? null : transaction.getSenderBalanceAfter().toBigDecimal())
+                .timestamp(transaction.getCreatedAt())
+                .message("Transfer successful")
+                .build();
+    }
+
+    private TransferResponseDto await(CompletableFuture<TransferResponseDto> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for the original request");
+        } catch (ExecutionException e) {
+            // The original failed; the duplicate sees the same outcome
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Transfer failed", e.getCause());
+        }
+    }
+
+    // Thrown by validation, the guarded debit, or a rejected credit after its debit was refunded: no money has moved.
+    // Anything else, a database error included, may come after the debit and credit were applied.
+    private static boolean isRejection(RuntimeException e) {
+        return e instanceof IllegalArgumentException
+                || e instanceof InvalidTransactionException
+                || e instanceof InsufficientBalanceException
+                || e instanceof UserNotFoundException;
+    }
+
+    // A key may only ever stand for one transfer
+    private TransferResponseDto replay(TransferResponseDto response, TransferRequestDto request) {
+        boolean sameRequest = Objects.equals(response.getReceiverEmail(), request.getReceiverEmail())
+                && request.getAmount() != null
+                && response.getAmount().compareTo(request.getAmount()) == 0
+                && Objects.equals(response.getDescription(), request.getDescription());
+
+        if (!sameRequest) {
+            throw new IdempotencyConflictException("Idempotency-Key was already used for a different transfer");
+        }
+
+        log.info("Replaying transfer {} for repeated Idempotency-Key", response.getReferenceNumber());
+        return response;
+    }
+}
@@ -0,0 +1,58 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Login timestamps are buffered per account and written in one bulk of single-field updates per flush, so a login
+// costs no synchronous write and never rewrites the user document a transfer may be updating at the same moment.
+// Repeated logins by one account between flushes coalesce into one update. A crash loses at most one interval.
+@Component
+@Slf4j
+public class LastLoginRecorder {
+
+    private final UserRepository userRepository;
+    private final ConcurrentMap<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public LastLoginRecorder(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        meterRegistry.gaugeMapSize("auth.last_login.pending", List.of(), pending);
+    }
+
+    public void record(String email, LocalDateTime loggedInAt) {
+        pending.merge(email, loggedInAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<String, LocalDateTime> batch = new HashMap<>(pending);
+        // Only drop what this flush writes; a login landing meanwhile stays queued for the next one
+        batch.forEach(pending::remove);
+
+        try {
+            userRepository.touchAll(batch);
+        } catch (RuntimeException e) {
+            log.warn("Could not record {} last-login times, retrying next flush: {}", batch.size(), e.getMessage());
+            batch.forEach(this::record);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
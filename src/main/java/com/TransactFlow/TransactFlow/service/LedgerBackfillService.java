@@ -0,0 +1,94 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.LedgerEntry;
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.repository.LedgerEntryRepository;
+import com.TransactFlow.TransactFlow.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Builds the two ledger entries of every transaction that lacks them. Entry ids are derived from the transaction id,
+// so the backfill can be re-run, and can run alongside live transfers, without creating duplicates.
+// The repair does the same for transactions still flagged ledgerPending, continuously and without a full scan.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerBackfillService {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final TransactionRepository transactionRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+
+    // Younger transactions are left alone: their own transfer is normally still writing their entries
+    @Value("${ledger.repair.min-age:30s}")
+    private Duration repairMinAge;
+
+    public long backfill() {
+        long started = System.nanoTime();
+        long scanned = 0;
+        long inserted = 0;
+        List<LedgerEntry> batch = new ArrayList<>(BATCH_SIZE * 2);
+
+        try (Stream<Transaction> transactions = transactionRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                batch.addAll(LedgerEntry.forTransaction(iterator.next()));
+                scanned++;
+                if (batch.size() >= BATCH_SIZE * 2) {
+                    inserted += ledgerEntryRepository.insertMissing(batch);
+                    batch.clear();
+                }
+            }
+        }
+        inserted += ledgerEntryRepository.insertMissing(batch);
+
+        log.info("Ledger backfill scanned {} transactions and wrote {} missing entries in {} ms",
+                scanned, inserted, (System.nanoTime() - started) / 1_000_000);
+        return inserted;
+    }
+
+    // Several nodes may repair at once: entries are inserted idempotently and the checkpoint is a plain unset
+    @Scheduled(fixedDelayString = "${ledger.repair.interval-ms:10000}")
+    public void repairPending() {
+        try {
+            while (repairBatch()) {
+                // A full batch; more may be waiting
+            }
+        } catch (RuntimeException e) {
+            log.warn("Ledger repair failed, retrying next run: {}", e.getMessage());
+        }
+    }
+
+    // Returns true when a full batch was repaired and more transactions may be waiting
+    boolean repairBatch() {
+        List<Transaction> pending = transactionRepository.findByLedgerPendingTrueAndCreatedAtBeforeOrderByCreatedAtAscIdAsc(
+                LocalDateTime.now().minus(repairMinAge), PageRequest.of(0, BATCH_SIZE));
+        if (pending.isEmpty()) {
+            return false;
+        }
+
+        List<LedgerEntry> entries = new ArrayList<>(pending.size() * 2);
+        for (Transaction transaction : pending) {
+            entries.addAll(LedgerEntry.forTransaction(transaction));
+        }
+        int inserted = ledgerEntryRepository.insertMissing(entries);
+        transactionRepository.markLedgerWritten(pending.stream().map(Transaction::getId).toList());
+
+        if (inserted > 0) {
+            log.warn("Ledger repair wrote {} missing entries for {} transactions", inserted, pending.size());
+        }
+        return pending.size() == BATCH_SIZE;
+    }
+}
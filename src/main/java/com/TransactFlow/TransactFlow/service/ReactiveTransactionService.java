@@ -0,0 +1,128 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.LedgerDirection;
+import com.TransactFlow.TransactFlow.dtos.TransactionHistoryDto;
+import com.TransactFlow.TransactFlow.dtos.TransactionSummaryDto;
+import com.TransactFlow.TransactFlow.dtos.WalletBalanceDto;
+import com.TransactFlow.TransactFlow.dtos.request.TransferRequestDto;
+import com.TransactFlow.TransactFlow.dtos.response.BatchTransferResponseDto;
+import com.TransactFlow.TransactFlow.dtos.response.TransferResponseDto;
+import com.TransactFlow.TransactFlow.exceptions.UserNotFoundException;
+import com.TransactFlow.TransactFlow.repository.reactive.ReactiveLedgerEntryRepository;
+import com.TransactFlow.TransactFlow.repository.reactive.ReactiveUserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Reads come straight off the reactive driver. Transfers reuse TransactionService on boundedElastic:
+// they are serialized per account by the TransferEngine anyway, and money movement keeps a single implementation.
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTransactionService {
+
+    private final ReactiveLedgerEntryRepository reactiveLedgerEntryRepository;
+    private final ReactiveUserRepository reactiveUserRepository;
+    private final TransactionService transactionService;
+    private final WalletBalanceCache walletBalanceCache;
+    private final BalanceStripingService balanceStripingService;
+    private final ObjectMapper objectMapper;
+
+    private static final Sort HISTORY_ORDER = Sort.by(Sort.Direction.DESC, "createdAt", "transactionId");
+
+
+    public Mono<TransferResponseDto> transferMoney(String senderEmail, TransferRequestDto request, String idempotencyKey) {
+        return Mono.fromCallable(() -> transactionService.transferMoney(senderEmail, request, idempotencyKey))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+
+    public Mono<BatchTransferResponseDto> transferBatch(String senderEmail, List<TransferRequestDto> requests) {
+        return Mono.fromCallable(() -> transactionService.transferBatch(senderEmail, requests))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+
+    public Mono<WalletBalanceDto> getWalletBalance(String email) {
+        WalletBalanceDto cached = walletBalanceCache.getIfPresent(email);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        // A striped balance is summed over its slots, which only the blocking repositories read
+        if (balanceStripingService.isStriped(email)) {
+            return Mono.fromCallable(() -> transactionService.getWalletBalance(email))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+        return reactiveUserRepository.findByEmail(email)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User not found")))
+                .map(user -> walletBalanceCache.putIfAbsent(email, user.getBalance()));
+    }
+
+
+    // Newest first; without a limit the whole history streams, paced by how fast the client reads
+    public Flux<TransactionHistoryDto> getTransactionHistory(String email, Integer limit) {
+        return reactiveLedgerEntryRepository.findByAccountEmail(email, pageable(limit))
+                .map(TransactionService::mapToHistoryDto);
+    }
+
+
+    public Flux<TransactionHistoryDto> getSentTransactions(String email, Integer limit) {
+        return reactiveLedgerEntryRepository.findByAccountEmailAndDirection(email, LedgerDirection.DEBIT, pageable(limit))
+                .map(TransactionService::mapToHistoryDto);
+    }
+
+
+    public Flux<TransactionHistoryDto> getReceivedTransactions(String email, Integer limit) {
+        return reactiveLedgerEntryRepository.findByAccountEmailAndDirection(email, LedgerDirection.CREDIT, pageable(limit))
+                .map(TransactionService::mapToHistoryDto);
+    }
+
+
+    // A handful of small indexed reads; run on the blocking repository like transfers
+    public Mono<TransactionSummaryDto> getTransactionSummary(String email, LocalDate from, LocalDate to, String granularity) {
+        return Mono.fromCallable(() -> transactionService.getTransactionSummary(email, from, to, granularity))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+
+    // Same output as TransactionService.exportHistory, one line per element
+    public Flux<String> exportHistory(String email, HistoryExportFormat format) {
+        Flux<String> rows = getTransactionHistory(email, null)
+                .map(dto -> format == HistoryExportFormat.CSV ? HistoryCsv.row(dto) : toJsonLine(dto));
+
+        return format == HistoryExportFormat.CSV
+                ? Flux.concat(Mono.just(HistoryCsv.HEADER), rows)
+                : rows;
+    }
+
+
+    private String toJsonLine(TransactionHistoryDto dto) {
+        try {
+            return objectMapper.writeValueAsString(dto) + '\n';
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize transaction " + dto.getTransactionId(), e);
+        }
+    }
+
+
+    private Pageable pageable(Integer limit) {
+        if (limit == null) {
+            return Pageable.unpaged(HISTORY_ORDER);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return PageRequest.of(0, limit, HISTORY_ORDER);
+    }
+}
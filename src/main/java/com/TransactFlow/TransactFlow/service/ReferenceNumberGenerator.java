@@ -0,0 +1,67 @@
+package com.TransactFlow.TransactFlow.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Snowflake-style ids: 41 bits of milliseconds, 10 bits of node id, 12 bits of sequence.
+// Unique as long as every node has its own node id, and they sort by creation time.
+@Component
+@Slf4j
+public class ReferenceNumberGenerator {
+
+    private static final String PREFIX = "TXN";
+
+    // 2025-01-01T00:00:00Z
+    private static final long EPOCH_MILLIS = 1735689600000L;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private final long nodeId;
+
+    // (milliseconds since EPOCH_MILLIS << SEQUENCE_BITS) | sequence, for the last id handed out
+    private final AtomicLong lastIssued = new AtomicLong();
+
+    public ReferenceNumberGenerator(@Value("${transfer.reference.node-id:-1}") long configuredNodeId) {
+        if (configuredNodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("transfer.reference.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = configuredNodeId >= 0 ? configuredNodeId : nodeIdFromHostname();
+        log.info("Reference numbers use node id {}", nodeId);
+    }
+
+    public String next() {
+        long issued = lastIssued.updateAndGet(previous -> {
+            long candidate = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            // Same millisecond, sequence exhausted or clock stepped back: keep counting up from the last id.
+            // An exhausted sequence carries into the millisecond bits, so ids never repeat or go backwards.
+            return candidate > previous ? candidate : previous + 1;
+        });
+
+        long millis = issued >>> SEQUENCE_BITS;
+        long sequence = issued & ((1L << SEQUENCE_BITS) - 1);
+        long id = (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+
+        // Fixed-width hex keeps string order equal to numeric order
+        String hex = Long.toHexString(id).toUpperCase();
+        return PREFIX + "0".repeat(16 - hex.length()) + hex;
+    }
+
+    private static long nodeIdFromHostname() {
+        try {
+            String hostname = InetAddress.getLocalHost().getHostName();
+            log.warn("transfer.reference.node-id is not set; deriving it from hostname '{}'. "
+                    + "Set it explicitly when running more than one node", hostname);
+            return Math.floorMod(hostname.hashCode(), MAX_NODE_ID + 1);
+        } catch (UnknownHostException e) {
+            log.warn("transfer.reference.node-id is not set and the hostname is unknown; using 0");
+            return 0;
+        }
+    }
+}
@@ -1,28 +1,58 @@
 package com.TransactFlow.TransactFlow.service;
 
+import com.TransactFlow.TransactFlow.data.model.AggregateGranularity;
+import com.TransactFlow.TransactFlow.data.model.LedgerDirection;
+import com.TransactFlow.TransactFlow.data.model.LedgerEntry;
+import com.TransactFlow.TransactFlow.data.model.Money;
 import com.TransactFlow.TransactFlow.data.model.Transaction;
 import com.TransactFlow.TransactFlow.data.model.TransactionStatus;
 import com.TransactFlow.TransactFlow.data.model.User;
 import com.TransactFlow.TransactFlow.dtos.TransactionHistoryDto;
+import com.TransactFlow.TransactFlow.dtos.TransactionPageDto;
+import com.TransactFlow.TransactFlow.dtos.TransactionSummaryDto;
 import com.TransactFlow.TransactFlow.dtos.WalletBalanceDto;
 import com.TransactFlow.TransactFlow.dtos.request.TransferRequestDto;
+import com.TransactFlow.TransactFlow.dtos.response.BatchTransferItemDto;
+import com.TransactFlow.TransactFlow.dtos.response.BatchTransferResponseDto;
 import com.TransactFlow.TransactFlow.dtos.response.TransferResponseDto;
-import com.TransactFlow.TransactFlow.exceptions.DuplicateTransactionException;
 import com.TransactFlow.TransactFlow.exceptions.InsufficientBalanceException;
 import com.TransactFlow.TransactFlow.exceptions.InvalidTransactionException;
+import com.TransactFlow.TransactFlow.exceptions.TransferNotRecordedException;
 import com.TransactFlow.TransactFlow.exceptions.UserNotFoundException;
+import com.TransactFlow.TransactFlow.repository.LedgerEntryRepository;
 import com.TransactFlow.TransactFlow.repository.TransactionRepository;
 import com.TransactFlow.TransactFlow.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -30,79 +60,151 @@ import java.util.UUID;
 public class TransactionService {
 
     private final TransactionRepository transactionRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
     private final UserRepository userRepository;
+    private final TransferEngine transferEngine;
+    private final ObjectMapper objectMapper;
+    private final WalletBalanceCache walletBalanceCache;
+    private final IdempotencyService idempotencyService;
+    private final ReferenceNumberGenerator referenceNumberGenerator;
+    private final TransferMetrics transferMetrics;
+    private final TransferAggregateService transferAggregateService;
+    private final BalanceStripingService balanceStripingService;
+
+    // Transfer limits in cents: 0.01 and 100,000.00
+    private static final long MIN_TRANSFER_MINOR_UNITS = 1;
+    private static final long MAX_TRANSFER_MINOR_UNITS = 10_000_000;
+    // Anything with more integer digits is far over the maximum and would not fit in a long as cents
+    private static final int MAX_INTEGER_DIGITS = 15;
+    // Draws of a fresh reference before a transfer whose reference keeps clashing is undone
+    private static final int MAX_REFERENCE_ATTEMPTS = 3;
+    // Writes of a transfer's ledger entries before they are left to the ledger repair
+    private static final int MAX_LEDGER_ATTEMPTS = 3;
+
+    private static final Sort HISTORY_ORDER = Sort.by(Sort.Direction.DESC, "createdAt", "transactionId");
+
+    @Value("${transfer.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${history.page.max-size:100}")
+    private int maxPageSize;
 
 
-    @Transactional
     public TransferResponseDto transferMoney(String senderEmail, TransferRequestDto request) {
-        log.info("Processing transfer from {} to {} ", senderEmail, request.getReceiverEmail());
-
-        validateTransferRequest(senderEmail, request);
-
-        User sender = userRepository.findByEmail(senderEmail)
-                .orElseThrow(()-> new UserNotFoundException("Sender not found"));
-
-        User receiver = userRepository.findByEmail(request.getReceiverEmail())
-                .orElseThrow(()-> new UserNotFoundException("Receiver not found"));
-
-        if(!receiver.isActive()){
-            throw new InvalidTransactionException("Receiver account is inactive");
-        }
+        return transfer(senderEmail, request, null);
+    }
 
-        if(sender.getBalance().compareTo(request.getAmount()) < 0){
-            throw new InsufficientBalanceException(
-                    String.format("Insufficient balance. Sender balance is %s",
-                            sender.getBalance(),
-                            request.getAmount())
-            );
 
+    // A retried request carrying the same Idempotency-Key gets the original response and moves no money
+    public TransferResponseDto transferMoney(String senderEmail, TransferRequestDto request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return transferMoney(senderEmail, request);
         }
+        return idempotencyService.execute(senderEmail, idempotencyKey, request,
+                idempotencyId -> transfer(senderEmail, request, idempotencyId));
+    }
 
 
-        String referenceNumber = generateReferenceNumber();
+    // idempotencyId is written onto the transaction record; null for a request without an Idempotency-Key
+    private TransferResponseDto transfer(String senderEmail, TransferRequestDto request, String idempotencyId) {
+        log.info("Processing transfer from {} to {} ", senderEmail, request.getReceiverEmail());
 
-        if (transactionRepository.existsByReferenceNumber(referenceNumber)) {
-            throw new DuplicateTransactionException("Duplicate transaction detected");
+        long start = System.nanoTime();
+        try {
+            transferMetrics.validation().record(() -> validateTransferRequest(senderEmail, request));
+
+            long submitted = System.nanoTime();
+            Supplier<TransferResponseDto> work = () -> {
+                transferMetrics.queue().record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return executeTransfer(senderEmail, request, idempotencyId);
+            };
+            // A striped receiver takes credits without touching its user document, so only the sender is serialized
+            TransferResponseDto response = balanceStripingService.isStriped(request.getReceiverEmail())
+                    ? transferEngine.execute(senderEmail, work)
+                    : transferEngine.execute(senderEmail, request.getReceiverEmail(), work);
+            transferMetrics.recordTransfer(start, "success");
+            return response;
+        } catch (RuntimeException e) {
+            transferMetrics.recordTransfer(start, e.getClass().getSimpleName());
+            throw e;
         }
+    }
 
-        // Record balances before transaction
-        BigDecimal senderBalanceBefore = sender.getBalance();
-        BigDecimal receiverBalanceBefore = receiver.getBalance();
 
-        // Perform the transfer
-        BigDecimal newSenderBalance = sender.getBalance().subtract(request.getAmount());
-        BigDecimal newReceiverBalance = receiver.getBalance().add(request.getAmount());
+    private TransferResponseDto executeTransfer(String senderEmail, TransferRequestDto request, String idempotencyId) {
+        Money amount = Money.of(request.getAmount());
 
-        sender.setBalance(newSenderBalance);
-        sender.setUpdateDate(LocalDateTime.now());
+        // Guarded $inc: the balance check and the debit happen in one atomic update
+        User sender = transferMetrics.debit().record(() -> balanceStripingService.debitIfSufficient(senderEmail, amount))
+                .orElseThrow(() -> debitFailure(senderEmail));
 
-        receiver.setBalance(newReceiverBalance);
-        receiver.setUpdateDate(LocalDateTime.now());
+        // A striped receiver is credited in one of its slots, which returns no balance to record
+        boolean receiverStriped = balanceStripingService.isStriped(request.getReceiverEmail());
+        Optional<User> receiver = Optional.empty();
+        boolean credited;
+        if (receiverStriped) {
+            credited = transferMetrics.credit().record(() -> balanceStripingService.creditIfActive(request.getReceiverEmail(), amount));
+        } else {
+            receiver = transferMetrics.credit().record(() -> userRepository.creditIfActive(request.getReceiverEmail(), amount));
+            credited = receiver.isPresent();
+        }
+
+        if (!credited) {
+            // Give the money back before reporting why the credit was rejected
+            userRepository.credit(senderEmail, amount);
+            walletBalanceCache.invalidate(senderEmail);
+            throw creditFailure(request.getReceiverEmail());
+        }
 
-        //  Save updated balances
-        userRepository.save(sender);
-        userRepository.save(receiver);
+        // Both documents come back post-update, so the before values are derived from the amount.
+        // A striped account's balance is spread over its slots and has no exact point-in-time value to record.
+        boolean senderStriped = balanceStripingService.isStriped(senderEmail);
+        Money newSenderBalance = senderStriped ? balanceStripingService.balanceOf(sender) : sender.getBalance();
+        Money newReceiverBalance = receiver.map(User::getBalance).orElse(null);
+        Money senderBalanceBefore = senderStriped ? null : newSenderBalance.plus(amount);
+        Money receiverBalanceBefore = receiverStriped ? null : newReceiverBalance.minus(amount);
 
         //  Create transaction record
         Transaction transaction = Transaction.builder()
                 .senderEmail(senderEmail)
                 .receiverEmail(request.getReceiverEmail())
-                .amount(request.getAmount())
+                .amount(amount)
                 .description(request.getDescription())
                 .status(TransactionStatus.SUCCESS)
-                .referenceNumber(referenceNumber)
+                .referenceNumber(referenceNumberGenerator.next())
+                .idempotencyKey(idempotencyId)
                 .senderBalanceBefore(senderBalanceBefore)
-                .senderBalanceAfter(newSenderBalance)
+                .senderBalanceAfter(senderStriped ? null : newSenderBalance)
                 .receiverBalanceBefore(receiverBalanceBefore)
                 .receiverBalanceAfter(newReceiverBalance)
                 .createdAt(LocalDateTime.now())
+                .outboxPending(true)
+                .ledgerPending(true)
                 .build();
 
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        Transaction savedTransaction = transferMetrics.ledgerInsert().record(() -> {
+            List<Transaction> saved = insertOrUndo(senderEmail, List.of(transaction),
+                    Map.of(request.getReceiverEmail(), amount), amount);
+            if (saved == null) {
+                walletBalanceCache.invalidate(senderEmail);
+                walletBalanceCache.invalidate(request.getReceiverEmail());
+                throw new TransferNotRecordedException("Transfer could not be recorded; no money was moved");
+            }
+            recordLedgerEntries(saved);
+            return saved.get(0);
+        });
+        String referenceNumber = savedTransaction.getReferenceNumber();
+        transferAggregateService.record(List.of(savedTransaction));
+
+        walletBalanceCache.put(senderEmail, newSenderBalance);
+        if (receiverStriped) {
+            walletBalanceCache.invalidate(request.getReceiverEmail());
+        } else {
+            walletBalanceCache.put(request.getReceiverEmail(), newReceiverBalance);
+        }
 
         log.info("Transfer successful. Reference: {}", referenceNumber);
 
-      
         return TransferResponseDto.builder()
                 .transactionId(savedTransaction.getId())
                 .referenceNumber(referenceNumber)
@@ -111,68 +213,276 @@ public class TransactionService {
                 .amount(request.getAmount())
                 .description(request.getDescription())
                 .status(TransactionStatus.SUCCESS)
-                .newBalance(newSenderBalance)
+                .newBalance(newSenderBalance.toBigDecimal())
                 .timestamp(savedTransaction.getCreatedAt())
                 .message("Transfer successful")
                 .build();
     }
 
 
-    public WalletBalanceDto getWalletBalance(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+    public BatchTransferResponseDto transferBatch(String senderEmail, List<TransferRequestDto> requests) {
+        // Only the sender's shard is held: the batch is its one debit, while receiver credits are commutative $inc
+        // updates that record no receiver snapshots, so nothing depends on receiver ordering
+        return transferMetrics.batch().record(() ->
+                transferEngine.execute(senderEmail, () -> executeBatch(senderEmail, requests)));
+    }
+
+
+    private BatchTransferResponseDto executeBatch(String senderEmail, List<TransferRequestDto> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one transfer is required");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch can contain at most " + maxBatchSize + " transfers");
+        }
+
+        log.info("Processing batch of {} transfers from {}", requests.size(), senderEmail);
+
+        User sender = userRepository.findByEmail(senderEmail)
+                .orElseThrow(() -> new UserNotFoundException("Sender not found"));
+
+        // Resolve every receiver with a single $in query
+        Set<String> receiverEmails = new HashSet<>();
+        for (TransferRequestDto request : requests) {
+            if (request.getReceiverEmail() != null) {
+                receiverEmails.add(request.getReceiverEmail());
+            }
+        }
+        Map<String, User> receivers = new HashMap<>();
+        for (User receiver : userRepository.findByEmailIn(receiverEmails)) {
+            receivers.put(receiver.getEmail(), receiver);
+        }
+
+        BatchTransferItemDto[] results = new BatchTransferItemDto[requests.size()];
+        List<Integer> accepted = new ArrayList<>();
+        Money totalDebit = Money.ZERO;
+        Money available = balanceStripingService.balanceOf(sender);
+
+        // Item-level failures are recorded and skipped; they never abort the rest of the batch
+        for (int i = 0; i < requests.size(); i++) {
+            TransferRequestDto request = requests.get(i);
+            try {
+                validateTransferRequest(senderEmail, request);
+            } catch (RuntimeException e) {
+                results[i] = failedItem(i, request, e.getMessage());
+                continue;
+            }
+
+            User receiver = receivers.get(request.getReceiverEmail());
+            if (receiver == null) {
+                results[i] = failedItem(i, request, "Receiver not found");
+                continue;
+            }
+            if (!receiver.isActive()) {
+                results[i] = failedItem(i, request, "Receiver account is inactive");
+                continue;
+            }
+            Money amount = Money.of(request.getAmount());
+            if (available.minus(totalDebit).isLessThan(amount)) {
+                results[i] = failedItem(i, request, "Insufficient balance");
+                continue;
+            }
+
+            totalDebit = totalDebit.plus(amount);
+            accepted.add(i);
+        }
+
+        User debitedSender = accepted.isEmpty()
+                ? sender
+                : balanceStripingService.debitIfSufficient(senderEmail, totalDebit).orElse(null);
+
+        if (debitedSender == null) {
+            // The balance moved between the read and the guarded debit; nothing has been applied yet
+            for (int i : accepted) {
+                results[i] = failedItem(i, requests.get(i), "Insufficient balance");
+            }
+            accepted.clear();
+            totalDebit = Money.ZERO;
+            debitedSender = sender;
+        }
+
+        Map<String, Money> credits = new HashMap<>();
+        for (int i : accepted) {
+            credits.merge(requests.get(i).getReceiverEmail(), Money.of(requests.get(i).getAmount()), Money::plus);
+        }
 
-        return WalletBalanceDto.builder()
-                .email(email)
-                .balance(user.getBalance())
-                .currency("USD")
+        if (!credits.isEmpty()) {
+            Set<String> uncredited;
+            try {
+                uncredited = balanceStripingService.creditAllIfActive(credits);
+            } catch (RuntimeException e) {
+                // Some credits may have landed, so refunding the sender here could create money
+                log.error("Batch from {} debited {} but crediting {} failed with an unknown outcome; reconcile: {}",
+                        senderEmail, totalDebit, credits, e.getMessage());
+                throw e;
+            }
+
+            if (!uncredited.isEmpty()) {
+                // Receivers deactivated since the read got nothing; their share goes back to the sender
+                Money refund = Money.ZERO;
+                Iterator<Integer> items = accepted.iterator();
+                while (items.hasNext()) {
+                    int i = items.next();
+                    if (uncredited.contains(requests.get(i).getReceiverEmail())) {
+                        refund = refund.plus(Money.of(requests.get(i).getAmount()));
+                        results[i] = failedItem(i, requests.get(i), "Receiver account is inactive");
+                        items.remove();
+                    }
+                }
+                uncredited.forEach(credits::remove);
+                totalDebit = totalDebit.minus(refund);
+                debitedSender = userRepository.credit(senderEmail, refund).orElse(debitedSender);
+                walletBalanceCache.invalidate(senderEmail);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            // Replay the batch in order to give every sender row its own before/after snapshot; striped senders get none.
+            // Receivers get none either: the bulk $inc returns no balances, and transfers from other senders credit
+            // them concurrently, so the pre-batch read is not the balance any of these credits landed on.
+            boolean senderStriped = balanceStripingService.isStriped(senderEmail);
+            Money senderBalance = debitedSender.getBalance().plus(totalDebit);
+
+            LocalDateTime now = LocalDateTime.now();
+            List<Transaction> transactions = new ArrayList<>(accepted.size());
+            for (int i : accepted) {
+                TransferRequestDto request = requests.get(i);
+                Money amount = Money.of(request.getAmount());
+
+                transactions.add(Transaction.builder()
+                        .senderEmail(senderEmail)
+                        .receiverEmail(request.getReceiverEmail())
+                        .amount(amount)
+                        .description(request.getDescription())
+                        .status(TransactionStatus.SUCCESS)
+                        .referenceNumber(referenceNumberGenerator.next())
+                        .senderBalanceBefore(senderStriped ? null : senderBalance)
+                        .senderBalanceAfter(senderStriped ? null : senderBalance.minus(amount))
+                        .createdAt(now)
+                        .outboxPending(true)
+                        .ledgerPending(true)
+                        .build());
+
+                senderBalance = senderBalance.minus(amount);
+            }
+
+            List<Transaction> saved = insertOrUndo(senderEmail, transactions, credits, totalDebit);
+
+            // The credits' resulting balances are unknown here, so drop the cached ones
+            credits.keySet().forEach(walletBalanceCache::invalidate);
+
+            if (saved == null) {
+                for (int i : accepted) {
+                    results[i] = failedItem(i, requests.get(i), "Transfer could not be recorded");
+                }
+                accepted.clear();
+                totalDebit = Money.ZERO;
+                debitedSender = userRepository.findByEmail(senderEmail).orElse(debitedSender);
+                walletBalanceCache.invalidate(senderEmail);
+            } else {
+                recordLedgerEntries(saved);
+                transferAggregateService.record(saved);
+
+                if (senderStriped) {
+                    walletBalanceCache.invalidate(senderEmail);
+                } else {
+                    walletBalanceCache.put(senderEmail, debitedSender.getBalance());
+                }
+
+                for (int j = 0; j < accepted.size(); j++) {
+                    int i = accepted.get(j);
+                    Transaction transaction = saved.get(j);
+                    results[i] = BatchTransferItemDto.builder()
+                            .index(i)
+                            .transactionId(transaction.getId())
+                            .referenceNumber(transaction.getReferenceNumber())
+                            .receiverEmail(transaction.getReceiverEmail())
+                            .amount(transaction.getAmount().toBigDecimal())
+                            .status(TransactionStatus.SUCCESS)
+                            .message("Transfer successful")
+                            .build();
+                }
+            }
+        }
+
+        log.info("Batch from {} finished: {} succeeded, {} failed",
+                senderEmail, accepted.size(), requests.size() - accepted.size());
+
+        return BatchTransferResponseDto.builder()
+                .senderEmail(senderEmail)
+                .succeeded(accepted.size())
+                .failed(requests.size() - accepted.size())
+                .totalDebited(totalDebit.toBigDecimal())
+                .newBalance(balanceStripingService.balanceOf(debitedSender).toBigDecimal())
+                .results(List.of(results))
                 .build();
     }
 
 
-    public List<TransactionHistoryDto> getTransactionHistory(String email) {
-        // Get all transactions where user is sender or receiver
-        List<Transaction> transactions = transactionRepository
-                .findBySenderEmailOrReceiverEmailOrderByCreatedAtDesc(email, email);
+    public WalletBalanceDto getWalletBalance(String email) {
+        return walletBalanceCache.get(email, key -> balanceStripingService.balanceOf(userRepository.findByEmail(key)
+                .orElseThrow(() -> new UserNotFoundException("User not found"))));
+    }
 
-        List<TransactionHistoryDto> history = new ArrayList<>();
 
-        for (Transaction transaction : transactions) {
-            boolean isSender = transaction.getSenderEmail().equals(email);
+    // Each history view is one (accountEmail[, direction], createdAt) range scan over the ledger
+    public TransactionPageDto getTransactionHistory(String email, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        HistoryCursor after = HistoryCursor.decode(cursor);
 
-            TransactionHistoryDto dto = TransactionHistoryDto.builder()
-                    .transactionId(transaction.getId())
-                    .referenceNumber(transaction.getReferenceNumber())
-//                    .type(isSender ? "SENT" : "RECEIVED")
-                    .otherParty(isSender ? transaction.getReceiverEmail() : transaction.getSenderEmail())
-                    .amount(transaction.getAmount())
-                    .description(transaction.getDescription())
-                    .status(transaction.getStatus())
-                    .balanceBefore(isSender ? transaction.getSenderBalanceBefore() : transaction.getReceiverBalanceBefore())
-                    .balanceAfter(isSender ? transaction.getSenderBalanceAfter() : transaction.getReceiverBalanceAfter())
-                    .timestamp(transaction.getCreatedAt())
-                    .build();
+        List<LedgerEntry> entries = after == null
+                ? ledgerEntryRepository.findByAccountEmail(email, pageRequest(pageSize))
+                : ledgerEntryRepository.findEntriesBefore(email, after.createdAt(), after.id(), pageRequest(pageSize));
 
-            history.add(dto);
-        }
+        return toPage(entries, pageSize);
+    }
 
-        return history;
+
+    public TransactionPageDto getSentTransactions(String email, String cursor, int limit) {
+        return getEntries(email, LedgerDirection.DEBIT, cursor, limit);
     }
 
 
-    public List<TransactionHistoryDto> getSentTransactions(String email) {
-        List<Transaction> transactions = transactionRepository.findBySenderEmailOrderByCreatedAtDesc(email);
-        return mapToHistoryDto(transactions, email, true);
+    public TransactionPageDto getReceivedTransactions(String email, String cursor, int limit) {
+        return getEntries(email, LedgerDirection.CREDIT, cursor, limit);
     }
 
 
-    public List<TransactionHistoryDto> getReceivedTransactions(String email) {
-        List<Transaction> transactions = transactionRepository.findByReceiverEmailOrderByCreatedAtDesc(email);
-        return mapToHistoryDto(transactions, email, false);
+    // Answered from the pre-aggregated day/month buckets, never from the transactions themselves
+    public TransactionSummaryDto getTransactionSummary(String email, LocalDate from, LocalDate to, String granularity) {
+        return transferAggregateService.summarize(email, from, to, AggregateGranularity.from(granularity));
     }
 
 
-    private void validateTransferRequest(String senderEmail, TransferRequestDto request) {
+    // Streams straight from the Mongo cursor to the client; memory stays constant and a slow reader slows the cursor
+    public void exportHistory(String email, HistoryExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        if (format == HistoryExportFormat.CSV) {
+            writer.write(HistoryCsv.HEADER);
+        }
+
+        try (Stream<LedgerEntry> entries = ledgerEntryRepository
+                .streamByAccountEmailOrderByCreatedAtDescTransactionIdDesc(email)) {
+
+            Iterator<LedgerEntry> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                TransactionHistoryDto dto = mapToHistoryDto(iterator.next());
+
+                if (format == HistoryExportFormat.CSV) {
+                    writer.write(HistoryCsv.row(dto));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+            }
+        }
+
+        writer.flush();
+    }
+
+
+    void validateTransferRequest(String senderEmail, TransferRequestDto request) {
         // Check if receiver email is provided
         if (request.getReceiverEmail() == null || request.getReceiverEmail().trim().isEmpty()) {
             throw new IllegalArgumentException("Receiver email is required");
@@ -184,7 +494,7 @@ public class TransactionService {
         }
 
         // Check if amount is positive
-        if (request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+        if (request.getAmount().signum() <= 0) {
             throw new InvalidTransactionException("Amount must be greater than zero");
         }
 
@@ -198,45 +508,215 @@ public class TransactionService {
             throw new InvalidTransactionException("Cannot transfer money to yourself");
         }
 
+        // Limits are checked on the cents value: plain long comparisons
+        long minorUnits = request.getAmount().precision() - request.getAmount().scale() > MAX_INTEGER_DIGITS
+                ? Long.MAX_VALUE
+                : Money.minorUnitsOf(request.getAmount());
+
         // Check minimum transfer amount
-        if (request.getAmount().compareTo(new BigDecimal("0.01")) < 0) {
+        if (minorUnits < MIN_TRANSFER_MINOR_UNITS) {
             throw new InvalidTransactionException("Minimum transfer amount is 0.01");
         }
 
         // Check maximum transfer amount (optional security measure)
-        if (request.getAmount().compareTo(new BigDecimal("100000.00")) > 0) {
+        if (minorUnits > MAX_TRANSFER_MINOR_UNITS) {
             throw new InvalidTransactionException("Maximum transfer amount is 100,000.00");
         }
     }
 
 
-    private String generateReferenceNumber() {
-        return "TXN" + UUID.randomUUID().toString().replace("-", "").substring(0, 16).toUpperCase();
+    private BatchTransferItemDto failedItem(int index, TransferRequestDto request, String message) {
+        return BatchTransferItemDto.builder()
+                .index(index)
+                .receiverEmail(request.getReceiverEmail())
+                .amount(request.getAmount())
+                .status(TransactionStatus.FAILED)
+                .message(message)
+                .build();
+    }
+
+
+    private RuntimeException debitFailure(String senderEmail) {
+        return userRepository.findByEmail(senderEmail)
+                .<RuntimeException>map(sender -> new InsufficientBalanceException(
+                        String.format("Insufficient balance. Sender balance is %s", balanceStripingService.balanceOf(sender))))
+                .orElseGet(() -> new UserNotFoundException("Sender not found"));
     }
 
 
-    private List<TransactionHistoryDto> mapToHistoryDto(List<Transaction> transactions, String userEmail, boolean isSent) {
-        List<TransactionHistoryDto> history = new ArrayList<>();
+    private RuntimeException creditFailure(String receiverEmail) {
+        return userRepository.findByEmail(receiverEmail)
+                .<RuntimeException>map(receiver -> new InvalidTransactionException("Receiver account is inactive"))
+                .orElseGet(() -> new UserNotFoundException("Receiver not found"));
+    }
+
 
+    // References are unique by construction; the unique index only trips if two nodes share a node id. A clash on the
+    // reference gets a fresh one a few times; any other duplicate, or a clash that keeps recurring, is thrown for
+    // insertOrUndo to take the money back. Ids are assigned up front: after a failed ordered insert they tell which
+    // records landed before it stopped.
+    private List<Transaction> insertWithUniqueReferences(List<Transaction> transactions) {
         for (Transaction transaction : transactions) {
-            TransactionHistoryDto dto = TransactionHistoryDto.builder()
-                    .transactionId(transaction.getId())
-                    .referenceNumber(transaction.getReferenceNumber())
-//                    .type(isSent ? "SENT" : "RECEIVED")
-                    .otherParty(isSent ? transaction.getReceiverEmail() : transaction.getSenderEmail())
-                    .amount(transaction.getAmount())
-                    .description(transaction.getDescription())
-                    .status(transaction.getStatus())
-                    .balanceBefore(isSent ? transaction.getSenderBalanceBefore() : transaction.getReceiverBalanceBefore())
-                    .balanceAfter(isSent ? transaction.getSenderBalanceAfter() : transaction.getReceiverBalanceAfter())
-                    .timestamp(transaction.getCreatedAt())
-                    .build();
+            transaction.setId(new ObjectId().toHexString());
+        }
+        List<Transaction> pending = transactions;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionRepository.insert(pending);
+                return transactions;
+            } catch (DuplicateKeyException e) {
+                if (!isReferenceClash(e) || attempt == MAX_REFERENCE_ATTEMPTS) {
+                    throw e;
+                }
+                Set<String> stored = new HashSet<>();
+                transactionRepository.findAllById(pending.stream().map(Transaction::getId).toList())
+                        .forEach(transaction -> stored.add(transaction.getId()));
+                pending = pending.stream().filter(transaction -> !stored.contains(transaction.getId())).toList();
+                for (Transaction transaction : pending) {
+                    log.warn("Reference {} may already exist; check transfer.reference.node-id", transaction.getReferenceNumber());
+                    transaction.setReferenceNumber(referenceNumberGenerator.next());
+                }
+            }
+        }
+    }
 
-            history.add(dto);
+
+    // E11000 names the violated index, and the reference's unique index is named after the field
+    private static boolean isReferenceClash(DuplicateKeyException e) {
+        return e.getMessage() != null && e.getMessage().contains("referenceNumber");
+    }
+
+
+    // The money has moved by now. If the records cannot be written, take it back rather than leave transfers nobody
+    // can see: drop whatever part of the insert landed, reverse the credits and refund the sender. Returns null once undone.
+    private List<Transaction> insertOrUndo(String senderEmail, List<Transaction> transactions,
+                                           Map<String, Money> credits, Money totalDebit) {
+        try {
+            return insertWithUniqueReferences(transactions);
+        } catch (RuntimeException e) {
+            log.error("Could not record {} transfers from {}; reversing them: {}",
+                    transactions.size(), senderEmail, e.getMessage());
         }
 
-        return history;
+        List<String> ids = transactions.stream().map(Transaction::getId).toList();
+        try {
+            transactionRepository.deleteAllById(ids);
+        } catch (RuntimeException e) {
+            // Some records may exist, so reversing the money could leave them pointing at nothing
+            log.error("Could not remove the partial records {} of transfers from {}; reconcile: {}", ids, senderEmail, e.getMessage());
+            throw e;
+        }
+        // Only what came back from the receivers goes back to the sender, so a failed reversal cannot create money
+        Map<String, Money> unreversed = new HashMap<>();
+        credits.forEach((email, amount) -> {
+            if (!balanceStripingService.reverseCredit(email, amount)) {
+                unreversed.put(email, amount);
+            }
+        });
+        Money kept = unreversed.values().stream().reduce(Money.ZERO, Money::plus);
+        userRepository.credit(senderEmail, totalDebit.minus(kept));
+        if (!unreversed.isEmpty()) {
+            log.error("Could not take back {} from receivers that already spent it, for transfers from {}; reconcile",
+                    unreversed, senderEmail);
+            throw new IllegalStateException("Transfer could not be recorded or fully reversed");
+        }
+        return null;
     }
-}
 
+    // The transfer is committed by now, so a failed write is retried rather than failing it. Entries still missing after
+    // that are written by the ledger repair, which finds their transactions by the ledgerPending flag.
+    private void recordLedgerEntries(List<Transaction> transactions) {
+        List<LedgerEntry> entries = new ArrayList<>(transactions.size() * 2);
+        for (Transaction transaction : transactions) {
+            entries.addAll(LedgerEntry.forTransaction(transaction));
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // A retry skips whatever part of the failed attempt landed
+                if (attempt == 1) {
+                    ledgerEntryRepository.insert(entries);
+                } else {
+                    ledgerEntryRepository.insertMissing(entries);
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_LEDGER_ATTEMPTS) {
+                    log.error("Could not write ledger entries for {} transactions; leaving them to the ledger repair: {}",
+                            transactions.size(), e.getMessage());
+                    return;
+                }
+                log.warn("Writing ledger entries for {} transactions failed, retrying: {}", transactions.size(), e.getMessage());
+            }
+        }
+    }
+
+
+    private TransactionPageDto getEntries(String email, LedgerDirection direction, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        HistoryCursor after = HistoryCursor.decode(cursor);
 
+        List<LedgerEntry> entries = after == null
+                ? ledgerEntryRepository.findByAccountEmailAndDirection(email, direction, pageRequest(pageSize))
+                : ledgerEntryRepository.findEntriesBefore(email, direction, after.createdAt(), after.id(), pageRequest(pageSize));
+
+        return toPage(entries, pageSize);
+    }
+
+
+    private int pageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+
+    // Fetch one extra row so we know whether another page exists without a count query
+    private Pageable pageRequest(int pageSize) {
+        return PageRequest.of(0, pageSize + 1, HISTORY_ORDER);
+    }
+
+
+    private TransactionPageDto toPage(List<LedgerEntry> entries, int pageSize) {
+        boolean hasMore = entries.size() > pageSize;
+        List<LedgerEntry> page = hasMore ? entries.subList(0, pageSize) : entries;
+
+        List<TransactionHistoryDto> items = new ArrayList<>(page.size());
+        for (LedgerEntry entry : page) {
+            items.add(mapToHistoryDto(entry));
+        }
+
+        // Same (createdAt, transaction id) position as before the ledger, so cursors issued earlier stay valid
+        String nextCursor = null;
+        if (hasMore) {
+            LedgerEntry last = page.get(page.size() - 1);
+            nextCursor = new HistoryCursor(last.getCreatedAt(), new ObjectId(last.getTransactionId())).encode();
+        }
+
+        return TransactionPageDto.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+
+    static TransactionHistoryDto mapToHistoryDto(LedgerEntry entry) {
+        return TransactionHistoryDto.builder()
+                .transactionId(entry.getTransactionId())
+                .referenceNumber(entry.getReferenceNumber())
+                .otherParty(entry.getCounterpartyEmail())
+                .amount(entry.getAmount().toBigDecimal())
+                .description(entry.getDescription())
+                .status(entry.getStatus())
+                .balanceBefore(toBigDecimal(entry.getBalanceBefore()))
+                .balanceAfter(toBigDecimal(entry.getBalanceAfter()))
+                .timestamp(entry.getCreatedAt())
+                .build();
+    }
+
+
+    // Striped accounts record no balance snapshots
+    private static BigDecimal toBigDecimal(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+}
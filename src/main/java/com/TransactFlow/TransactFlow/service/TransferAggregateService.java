@@ -0,0 +1,152 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.AggregateGranularity;
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.data.model.TransferAggregate;
+import com.TransactFlow.TransactFlow.dtos.PeriodSummaryDto;
+import com.TransactFlow.TransactFlow.dtos.TransactionSummaryDto;
+import com.TransactFlow.TransactFlow.exceptions.InvalidTransactionException;
+import com.TransactFlow.TransactFlow.repository.TransferAggregateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Per-account day and month totals, kept current with $inc on every transfer so summaries cost O(periods)
+@Service
+@Slf4j
+public class TransferAggregateService {
+
+    private final TransferAggregateRepository transferAggregateRepository;
+    private final TransferMetrics transferMetrics;
+    private final long maxRangeDays;
+
+    public TransferAggregateService(TransferAggregateRepository transferAggregateRepository,
+                                    TransferMetrics transferMetrics,
+                                    @Value("${summary.max-range-days:3660}") long maxRangeDays) {
+        this.transferAggregateRepository = transferAggregateRepository;
+        this.transferMetrics = transferMetrics;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+
+    // Runs after the money has moved, so a failure here must not fail the transfer; a rebuild repairs the drift
+    public void record(Collection<Transaction> transactions) {
+        try {
+            transferMetrics.aggregate().record(() -> transferAggregateRepository.record(transactions));
+        } catch (RuntimeException e) {
+            log.error("Could not update transfer aggregates for {} transactions: {}", transactions.size(), e.getMessage());
+        }
+    }
+
+
+    public TransactionSummaryDto summarize(String email, LocalDate from, LocalDate to, AggregateGranularity granularity) {
+        if (from == null || to == null) {
+            throw new InvalidTransactionException("Both from and to dates are required");
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidTransactionException("The from date must not be after the to date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new InvalidTransactionException("A summary can span at most " + maxRangeDays + " days");
+        }
+
+        List<TransferAggregate> buckets = granularity == AggregateGranularity.DAY
+                ? days(email, from, to)
+                : monthsAndEdgeDays(email, from, to);
+
+        // Day buckets of a partial edge month fold into that month's entry
+        Map<String, PeriodSummaryDto> periods = new TreeMap<>();
+        for (TransferAggregate bucket : buckets) {
+            String period = granularity == AggregateGranularity.MONTH
+                    ? bucket.getPeriod().substring(0, 7)
+                    : bucket.getPeriod();
+            PeriodSummaryDto summary = periods.computeIfAbsent(period, key -> PeriodSummaryDto.builder()
+                    .period(key)
+                    .totalSent(BigDecimal.ZERO)
+                    .totalReceived(BigDecimal.ZERO)
+                    .build());
+            summary.setTotalSent(summary.getTotalSent().add(orZero(bucket.getSentTotal())));
+            summary.setSentCount(summary.getSentCount() + orZero(bucket.getSentCount()));
+            summary.setTotalReceived(summary.getTotalReceived().add(orZero(bucket.getReceivedTotal())));
+            summary.setReceivedCount(summary.getReceivedCount() + orZero(bucket.getReceivedCount()));
+        }
+
+        BigDecimal totalSent = BigDecimal.ZERO;
+        BigDecimal totalReceived = BigDecimal.ZERO;
+        long sentCount = 0;
+        long receivedCount = 0;
+        for (PeriodSummaryDto period : periods.values()) {
+            totalSent = totalSent.add(period.getTotalSent());
+            totalReceived = totalReceived.add(period.getTotalReceived());
+            sentCount += period.getSentCount();
+            receivedCount += period.getReceivedCount();
+        }
+
+        return TransactionSummaryDto.builder()
+                .from(from)
+                .to(to)
+                .granularity(granularity)
+                .totalSent(totalSent)
+                .sentCount(sentCount)
+                .totalReceived(totalReceived)
+                .receivedCount(receivedCount)
+                .netChange(totalReceived.subtract(totalSent))
+                .periods(new ArrayList<>(periods.values()))
+                .build();
+    }
+
+
+    public long rebuild() {
+        long started = System.nanoTime();
+        long buckets = transferAggregateRepository.rebuild();
+        log.info("Rebuilt {} transfer aggregate buckets in {} ms", buckets, (System.nanoTime() - started) / 1_000_000);
+        return buckets;
+    }
+
+
+    // Whole months inside the range come from month buckets, the partial months at either end from day buckets
+    private List<TransferAggregate> monthsAndEdgeDays(String email, LocalDate from, LocalDate to) {
+        LocalDate firstWholeMonth = from.getDayOfMonth() == 1 ? from : from.with(TemporalAdjusters.firstDayOfNextMonth());
+        LocalDate afterWholeMonths = to.equals(to.with(TemporalAdjusters.lastDayOfMonth()))
+                ? to.plusDays(1)
+                : to.withDayOfMonth(1);
+
+        if (!firstWholeMonth.isBefore(afterWholeMonths)) {
+            return days(email, from, to);
+        }
+
+        List<TransferAggregate> buckets = new ArrayList<>(days(email, from, firstWholeMonth.minusDays(1)));
+        buckets.addAll(transferAggregateRepository.findPeriods(email, AggregateGranularity.MONTH,
+                AggregateGranularity.MONTH.period(firstWholeMonth),
+                AggregateGranularity.MONTH.period(afterWholeMonths.minusMonths(1))));
+        buckets.addAll(days(email, afterWholeMonths, to));
+        return buckets;
+    }
+
+    private List<TransferAggregate> days(String email, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return List.of();
+        }
+        return transferAggregateRepository.findPeriods(email, AggregateGranularity.DAY,
+                AggregateGranularity.DAY.period(from), AggregateGranularity.DAY.period(to));
+    }
+
+    private static BigDecimal orZero(Money value) {
+        return value == null ? BigDecimal.ZERO : value.toBigDecimal();
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,79 @@
+package com.TransactFlow.TransactFlow.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Accounts hash onto N shard locks, taken on the caller's own thread. A transfer holds the locks of both its accounts
+// while it runs, so transfers touching an account execute one at a time, and no thread ever waits on another one.
+@Component
+@Slf4j
+public class TransferEngine {
+
+    private final boolean enabled;
+    private final ReentrantLock[] shards;
+
+    public TransferEngine(@Value("${transfer.engine.enabled:true}") boolean enabled,
+                          @Value("${transfer.engine.shards:1024}") int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("transfer.engine.shards must be at least 1");
+        }
+        this.enabled = enabled;
+        this.shards = new ReentrantLock[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            // Fair, so a transfer waiting on a busy account is served in arrival order rather than overtaken
+            shards[i] = new ReentrantLock(true);
+        }
+        log.info("Transfer engine {} with {} shards", enabled ? "enabled" : "disabled", shardCount);
+    }
+
+    // Runs the work while both accounts' shards are held, so transfers touching an account execute one at a time
+    public <T> T execute(String senderEmail, String receiverEmail, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+
+        int first = shardOf(senderEmail);
+        int second = shardOf(receiverEmail);
+
+        if (first == second) {
+            return runHolding(shards[first], work);
+        }
+
+        // Always take the lower shard first: every caller locks in the same order, so no cycle can form
+        ReentrantLock lower = shards[Math.min(first, second)];
+        ReentrantLock higher = shards[Math.max(first, second)];
+
+        return runHolding(lower, () -> runHolding(higher, work));
+    }
+
+    // Holds one account's shard only; for transfers whose other side does not need serializing (striped receivers)
+    public <T> T execute(String email, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        return runHolding(shards[shardOf(email)], work);
+    }
+
+    int shardOf(String email) {
+        return Math.floorMod(email.hashCode(), shards.length);
+    }
+
+    // ReentrantLock parks a virtual thread without pinning its carrier
+    private static <T> T runHolding(ReentrantLock shard, Supplier<T> work) {
+        try {
+            shard.lockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for transfer", e);
+        }
+        try {
+            return work.get();
+        } finally {
+            shard.unlock();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.TransactFlow.TransactFlow.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// Where a transfer spends its time. Histograms rather than client-side percentiles so p99s aggregate across nodes.
+@Component
+public class TransferMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer validation;
+    private final Timer queue;
+    private final Timer debit;
+    private final Timer credit;
+    private final Timer ledgerInsert;
+    private final Timer aggregate;
+    private final Timer batch;
+
+    private final ConcurrentMap<String, Timer> outcomes = new ConcurrentHashMap<>();
+
+    public TransferMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.validation = phase("validation");
+        this.queue = phase("queue");
+        this.debit = phase("debit");
+        this.credit = phase("credit");
+        this.ledgerInsert = phase("ledger_insert");
+        this.aggregate = phase("aggregate");
+        this.batch = Timer.builder("transfer.batch")
+                .description("Whole batch transfer requests")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public Timer validation() {
+        return validation;
+    }
+
+    // Time spent waiting for the TransferEngine shards of both accounts
+    public Timer queue() {
+        return queue;
+    }
+
+    public Timer debit() {
+        return debit;
+    }
+
+    public Timer credit() {
+        return credit;
+    }
+
+    public Timer ledgerInsert() {
+        return ledgerInsert;
+    }
+
+    // Day/month aggregate upserts, for single and batch transfers alike
+    public Timer aggregate() {
+        return aggregate;
+    }
+
+    public Timer batch() {
+        return batch;
+    }
+
+    // End-to-end, tagged with "success" or the exception that ended the transfer
+    public void recordTransfer(long startNanos, String outcome) {
+        outcomes.computeIfAbsent(outcome, key -> Timer.builder("transfer")
+                        .description("Single transfers from validation to response")
+                        .tag("outcome", key)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer phase(String phase) {
+        return Timer.builder("transfer.phase")
+                .description("Time spent in one phase of a transfer")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,70 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.dtos.WalletBalanceDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// Node-local view of wallet balances; transfers on this node write through, other nodes catch up within the TTL
+@Component
+public class WalletBalanceCache {
+
+    private static final String CURRENCY = "USD";
+
+    private final Cache<String, WalletBalanceDto> cache;
+
+    public WalletBalanceCache(@Value("${wallet.cache.max-size:100000}") long maxSize,
+                              @Value("${wallet.cache.ttl:30s}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "walletBalance");
+    }
+
+    // Loads outside the cache's bin lock: a compute-style get would hold a monitor across the Mongo read and pin virtual threads.
+    // putIfAbsent keeps a write-through value that landed while we were loading.
+    public WalletBalanceDto get(String email, Function<String, Money> loader) {
+        WalletBalanceDto cached = getIfPresent(email);
+        if (cached != null) {
+            return cached;
+        }
+        return putIfAbsent(email, loader.apply(email));
+    }
+
+    public WalletBalanceDto getIfPresent(String email) {
+        return cache.getIfPresent(email);
+    }
+
+    // Returns whichever value ends up cached
+    public WalletBalanceDto putIfAbsent(String email, Money balance) {
+        WalletBalanceDto loaded = toDto(email, balance);
+        WalletBalanceDto raced = cache.asMap().putIfAbsent(email, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    public void put(String email, Money balance) {
+        cache.put(email, toDto(email, balance));
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    private WalletBalanceDto toDto(String email, Money balance) {
+        return WalletBalanceDto.builder()
+                .email(email)
+                .balance(balance.toBigDecimal())
+                .currency(CURRENCY)
+                .build();
+    }
+}
@@ -0,0 +1,232 @@
+package com.TransactFlow.TransactFlow.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteError;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Two proxy managers stand in for two replicas sharing one collection. Runs against MONGODB_URI when it is set and
+// against an in-memory collection with the same single-document atomicity otherwise.
+class MongoProxyManagerTest {
+
+    private static final int CAPACITY = 10;
+
+    private final BucketConfiguration configuration = BucketConfiguration.builder()
+            .addLimit(Bandwidth.builder().capacity(CAPACITY).refillIntervally(CAPACITY, Duration.ofMinutes(1)).build())
+            .build();
+
+    private final List<MongoClient> clients = new ArrayList<>();
+    private MongoCollection<Document> nodeOneCollection;
+    private MongoCollection<Document> nodeTwoCollection;
+
+    @BeforeEach
+    void setUp() {
+        String uri = System.getenv("MONGODB_URI");
+        if (uri == null || uri.isBlank()) {
+            nodeOneCollection = nodeTwoCollection = InMemoryCollection.create();
+            return;
+        }
+        for (int i = 0; i < 2; i++) {
+            clients.add(MongoClients.create(uri));
+        }
+        nodeOneCollection = clients.get(0).getDatabase("transactflow_test").getCollection("rate_limit_buckets_test");
+        nodeTwoCollection = clients.get(1).getDatabase("transactflow_test").getCollection("rate_limit_buckets_test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (!clients.isEmpty()) {
+            nodeOneCollection.drop();
+        }
+        clients.forEach(MongoClient::close);
+    }
+
+    @Test
+    void enforcesOneSharedLimitAcrossNodes() throws Exception {
+        String key = "ip:" + UUID.randomUUID();
+        Bucket onNodeOne = new MongoProxyManager(nodeOneCollection, Duration.ofMinutes(5)).builder()
+                .build(key, () -> configuration);
+        Bucket onNodeTwo = new MongoProxyManager(nodeTwoCollection, Duration.ofMinutes(5)).builder()
+                .build(key, () -> configuration);
+
+        assertThat(consumeConcurrently(onNodeOne, onNodeTwo, 100)).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void prefetchOverAdmitsAtMostTheUnsyncedTokensOfEachNode() throws Exception {
+        int maxUnsyncedTokens = 2;
+        String key = "ip:" + UUID.randomUUID();
+        Bucket onNodeOne = new MongoProxyManager(nodeOneCollection, Duration.ofMinutes(5)).builder()
+                .withOptimization(Optimizations.delaying(new DelayParameters(maxUnsyncedTokens, Duration.ofMinutes(1))))
+                .build(key, () -> configuration);
+        Bucket onNodeTwo = new MongoProxyManager(nodeTwoCollection, Duration.ofMinutes(5)).builder()
+                .withOptimization(Optimizations.delaying(new DelayParameters(maxUnsyncedTokens, Duration.ofMinutes(1))))
+                .build(key, () -> configuration);
+
+        assertThat(consumeConcurrently(onNodeOne, onNodeTwo, 100))
+                .isBetween(CAPACITY, CAPACITY + 2 * maxUnsyncedTokens);
+    }
+
+    @Test
+    void asyncApiSharesTheSameBucket() {
+        String key = "ip:" + UUID.randomUUID();
+        MongoProxyManager proxyManager = new MongoProxyManager(nodeOneCollection, Duration.ofMinutes(5));
+
+        int consumed = 0;
+        for (int i = 0; i < CAPACITY + 5; i++) {
+            boolean ok = i % 2 == 0
+                    ? proxyManager.builder().build(key, () -> configuration).tryConsume(1)
+                    : proxyManager.asAsync().builder().build(key, () -> CompletableFuture.completedFuture(configuration))
+                            .tryConsume(1).join();
+            consumed += ok ? 1 : 0;
+        }
+
+        assertThat(consumed).isEqualTo(CAPACITY);
+    }
+
+    private static int consumeConcurrently(Bucket onNodeOne, Bucket onNodeTwo, int attempts) throws Exception {
+        AtomicInteger consumed = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            Bucket bucket = i % 2 == 0 ? onNodeOne : onNodeTwo;
+            results.add(callers.submit(() -> {
+                if (bucket.tryConsume(1)) {
+                    consumed.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        callers.shutdown();
+        return consumed.get();
+    }
+
+    // Just the calls MongoProxyManager makes, with each one atomic on its document as on a real server
+    private static final class InMemoryCollection {
+
+        private final Map<BsonValue, BsonDocument> documents = new ConcurrentHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        static MongoCollection<Document> create() {
+            InMemoryCollection store = new InMemoryCollection();
+            MongoCollection<Document> collection = mock(MongoCollection.class);
+
+            when(collection.find(any(Bson.class))).thenAnswer(invocation -> {
+                FindIterable<Document> found = mock(FindIterable.class);
+                BsonDocument document = store.find(render(invocation.getArgument(0)));
+                when(found.first()).thenReturn(document == null ? null : decode(document));
+                return found;
+            });
+            when(collection.insertOne(any(Document.class))).thenAnswer(invocation -> {
+                store.insert(render(invocation.getArgument(0)));
+                return null;
+            });
+            when(collection.updateOne(any(Bson.class), any(Bson.class))).thenAnswer(invocation -> {
+                long matched = store.update(render(invocation.getArgument(0)), render(invocation.getArgument(1)));
+                return UpdateResult.acknowledged(matched, matched, null);
+            });
+            when(collection.deleteOne(any(Bson.class))).thenAnswer(invocation -> {
+                return DeleteResult.acknowledged(store.documents.remove(idOf(render(invocation.getArgument(0)))) == null ? 0 : 1);
+            });
+            return collection;
+        }
+
+        private synchronized BsonDocument find(BsonDocument filter) {
+            BsonDocument document = documents.get(idOf(filter));
+            return document != null && matches(document, filter) ? document.clone() : null;
+        }
+
+        private synchronized void insert(BsonDocument document) {
+            if (documents.putIfAbsent(document.get("_id"), document) != null) {
+                throw new MongoWriteException(new WriteError(11000, "E11000 duplicate key error", new BsonDocument()),
+                        new ServerAddress(), Set.of());
+            }
+        }
+
+        private synchronized long update(BsonDocument filter, BsonDocument update) {
+            BsonDocument document = find(filter);
+            if (document == null) {
+                return 0;
+            }
+            document.putAll(update.getDocument("$set"));
+            documents.put(document.get("_id"), document);
+            return 1;
+        }
+
+        private static BsonValue idOf(BsonDocument filter) {
+            if (!filter.containsKey("$and")) {
+                return filter.get("_id");
+            }
+            return filter.getArray("$and").stream()
+                    .map(clause -> clause.asDocument().get("_id"))
+                    .filter(id -> id != null)
+                    .findFirst()
+                    .orElseThrow();
+        }
+
+        // Equality filters, possibly under $and
+        private static boolean matches(BsonDocument document, BsonDocument filter) {
+            for (Map.Entry<String, BsonValue> condition : filter.entrySet()) {
+                if (condition.getKey().equals("$and")) {
+                    for (BsonValue clause : condition.getValue().asArray()) {
+                        if (!matches(document, clause.asDocument())) {
+                            return false;
+                        }
+                    }
+                } else if (!condition.getValue().equals(document.get(condition.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static BsonDocument render(Bson bson) {
+            return bson.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+        }
+
+        private static Document decode(BsonDocument document) {
+            return new DocumentCodec().decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.TransactFlow.TransactFlow.config;
+
+import com.TransactFlow.TransactFlow.data.model.LedgerEntry;
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.data.model.User;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueryPlanDiagnosticsTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final MongoDatabase database = mock(MongoDatabase.class);
+    private final QueryPlanDiagnostics diagnostics = new QueryPlanDiagnostics(mongoTemplate);
+
+    @Test
+    void explainCollectsStagesNestedAnywhereInTheWinningPlan() {
+        // Newer servers wrap the classic plan in queryPlan; older ones nest inputStage directly
+        Document winningPlan = new Document("queryPlan", new Document("stage", "LIMIT")
+                .append("inputStage", new Document("stage", "FETCH")
+                        .append("inputStage", new Document("stage", "IXSCAN")
+                                .append("indexName", "account_created_idx"))));
+        returnPlan(winningPlan);
+
+        assertThat(diagnostics.explain(new Document("find", "ledger_entries")))
+                .containsExactly("LIMIT", "FETCH", "IXSCAN");
+    }
+
+    @Test
+    void explainReportsCollectionScansUnderBranchingStages() {
+        returnPlan(new Document("stage", "SORT").append("inputStage", new Document("stage", "OR")
+                .append("inputStages", List.of(new Document("stage", "IXSCAN"), new Document("stage", "COLLSCAN")))));
+
+        assertThat(diagnostics.explain(new Document("find", "ledger_entries")))
+                .contains("SORT", "COLLSCAN");
+    }
+
+    @Test
+    void diagnosedQueriesHaveTheIndexesTheyNeed() {
+        assertThat(indexKeys(LedgerEntry.class)).contains(
+                new Document("accountEmail", 1).append("createdAt", -1).append("transactionId", -1),
+                new Document("accountEmail", 1).append("direction", 1).append("createdAt", -1).append("transactionId", -1));
+        assertThat(indexKeys(User.class)).contains(new Document("email", 1));
+        assertThat(indexKeys(Transaction.class)).contains(
+                new Document("referenceNumber", 1),
+                new Document("idempotencyKey", 1),
+                new Document("outboxPending", 1).append("createdAt", 1).append("_id", 1));
+    }
+
+    private void returnPlan(Document winningPlan) {
+        when(mongoTemplate.getDb()).thenReturn(database);
+        when(database.runCommand(any(Bson.class)))
+                .thenReturn(new Document("queryPlanner", new Document("winningPlan", winningPlan)));
+    }
+
+    // The definitions MongoIndexInitializer creates at startup
+    private static List<Document> indexKeys(Class<?> entity) {
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(new MongoConfig().mongoCustomConversions().getSimpleTypeHolder());
+        IndexResolver resolver = IndexResolver.create(context);
+        return StreamSupport.stream(resolver.resolveIndexFor(entity).spliterator(), false)
+                .map(IndexDefinition::getIndexKeys)
+                .toList();
+    }
+}
@@ -0,0 +1,36 @@
+package com.TransactFlow.TransactFlow.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.net.InetSocketAddress;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitWebFilterTest {
+
+    private final RateLimitWebFilter filter = new RateLimitWebFilter(null, null, null,
+            Pattern.compile(new ServerProperties().getTomcat().getRemoteip().getInternalProxies()));
+
+    @Test
+    void keysOnTheRightMostUntrustedHop() {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/transactions/balance")
+                .remoteAddress(new InetSocketAddress("10.0.0.5", 443))
+                .header("X-Forwarded-For", "6.6.6.6, 203.0.113.7, 10.0.0.9")
+                .build();
+
+        assertThat(filter.clientIp(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void ignoresForwardedHeadersFromUntrustedPeers() {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/transactions/balance")
+                .remoteAddress(new InetSocketAddress("198.51.100.1", 443))
+                .header("X-Forwarded-For", "6.6.6.6")
+                .build();
+
+        assertThat(filter.clientIp(request)).isEqualTo("198.51.100.1");
+    }
+}
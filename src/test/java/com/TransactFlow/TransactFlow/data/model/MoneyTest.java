@@ -0,0 +1,38 @@
+package com.TransactFlow.TransactFlow.data.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void convertsExactlyBetweenDecimalAndCents() {
+        assertThat(Money.of(new BigDecimal("125.50")).getMinorUnits()).isEqualTo(12_550);
+        assertThat(Money.of(new BigDecimal("7")).getMinorUnits()).isEqualTo(700);
+        assertThat(Money.of(new BigDecimal("0.1")).getMinorUnits()).isEqualTo(10);
+        // Trailing zeros beyond the cents are still exact
+        assertThat(Money.of(new BigDecimal("3.000")).getMinorUnits()).isEqualTo(300);
+        assertThat(Money.ofMinor(87_450).toBigDecimal()).isEqualByComparingTo("874.50");
+        assertThat(Money.ofMinor(-5).toString()).isEqualTo("-0.05");
+    }
+
+    @Test
+    void rejectsFractionsOfACent() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1.005"))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void arithmeticIsExact() {
+        Money balance = Money.ofMinor(100_000);
+        Money amount = Money.ofMinor(12_550);
+
+        assertThat(balance.minus(amount).plus(amount)).isEqualTo(balance);
+        assertThat(amount.isLessThan(balance)).isTrue();
+        assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)))
+                .isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,44 @@
+package com.TransactFlow.TransactFlow.repository.inmemory;
+
+import com.TransactFlow.TransactFlow.data.model.AggregateGranularity;
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.data.model.TransactionStatus;
+import com.TransactFlow.TransactFlow.data.model.TransferAggregate;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTransferAggregateRepositoryTest {
+
+    private final InMemoryTransferAggregateRepository repository =
+            new InMemoryTransferAggregateRepository(new InMemoryTransactionRepository());
+
+    @Test
+    void accountThatOnlyReceivesKeepsCounting() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 14, 12, 0);
+        repository.record(List.of(transfer("a@example.com", "r@example.com", now)));
+        repository.record(List.of(transfer("b@example.com", "r@example.com", now)));
+
+        String day = AggregateGranularity.DAY.period(LocalDate.from(now));
+        TransferAggregate receiver = repository.findById(TransferAggregate.id("r@example.com", day)).orElseThrow();
+
+        assertThat(receiver.getReceivedCount()).isEqualTo(2);
+        assertThat(receiver.getReceivedTotal()).isEqualTo(Money.ofMinor(200));
+        assertThat(receiver.getSentCount()).isNull();
+    }
+
+    private static Transaction transfer(String sender, String receiver, LocalDateTime at) {
+        return Transaction.builder()
+                .senderEmail(sender)
+                .receiverEmail(receiver)
+                .amount(Money.ofMinor(100))
+                .status(TransactionStatus.SUCCESS)
+                .createdAt(at)
+                .build();
+    }
+}
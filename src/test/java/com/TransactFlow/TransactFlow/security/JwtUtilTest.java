@@ -0,0 +1,55 @@
+package com.TransactFlow.TransactFlow.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "MySecretKeyForJWTTokenGenerationMustBeAtLeast256BitsLongForHS256Algorithm";
+
+    @Test
+    void cachedTokenStopsValidatingAtItsExpiry() throws Exception {
+        // exp has second precision, so two seconds leaves at least one before the token expires
+        JwtUtil jwtUtil = jwtUtil(SECRET, 2_000L);
+        String token = jwtUtil.generateToken("alice@example.com");
+
+        Claims claims = jwtUtil.validateToken(token);
+        assertThat(jwtUtil.validateToken(token)).isSameAs(claims);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!claims.getExpiration().before(new Date())) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Token never expired");
+            }
+            Thread.sleep(50);
+        }
+
+        assertThatThrownBy(() -> jwtUtil.validateToken(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 60_000L);
+        String forged = jwtUtil(SECRET.toLowerCase(), 60_000L).generateToken("alice@example.com");
+
+        assertThatThrownBy(() -> jwtUtil.validateToken(forged)).isInstanceOf(SignatureException.class);
+    }
+
+    private static JwtUtil jwtUtil(String secret, long expirationMillis) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", secret);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", expirationMillis);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 100L);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
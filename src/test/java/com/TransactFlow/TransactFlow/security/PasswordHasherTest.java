@@ -0,0 +1,76 @@
+package com.TransactFlow.TransactFlow.security;
+
+import com.TransactFlow.TransactFlow.exceptions.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Holds every hasher thread until released, so the test controls when the pool is saturated
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    };
+
+    private final PasswordHasher hasher = new PasswordHasher(blockingEncoder, meterRegistry, 1, 1, Duration.ofSeconds(2));
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hasher.shutdown();
+    }
+
+    @Test
+    void rejectsOnceThreadAndQueueAreFull() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.encode("one"));
+        awaitQueued(0);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.encode("two"));
+        awaitQueued(1);
+
+        assertThatThrownBy(() -> hasher.encode("three"))
+                .isInstanceOf(ServiceBusyException.class)
+                .extracting("retryAfterSeconds").isEqualTo(2L);
+        assertThat(meterRegistry.counter("auth.hash.rejected").count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:one");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:two");
+        assertThat(meterRegistry.timer("auth.hash", "operation", "encode").count()).isEqualTo(2);
+    }
+
+    private void awaitQueued(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.hash.queue.depth").gauge().value() != depth
+                || meterRegistry.timer("auth.hash.queue").count() < 1) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Hasher never reached queue depth " + depth);
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.TransactFlow.TransactFlow.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.web.server.WebFilterChainProxy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+class ReactiveActuatorSecurityTest {
+
+    @Test
+    void actuatorNeedsTheScrapeUserExceptHealth() {
+        WebTestClient client = clientWithScrapePassword("s3cret");
+
+        client.get().uri("/actuator/prometheus").exchange().expectStatus().isUnauthorized();
+        client.get().uri("/actuator/prometheus").headers(headers -> headers.setBasicAuth("prometheus", "wrong"))
+                .exchange().expectStatus().isUnauthorized();
+        client.get().uri("/actuator/prometheus").headers(headers -> headers.setBasicAuth("prometheus", "s3cret"))
+                .exchange().expectStatus().isOk();
+        client.get().uri("/actuator/health").exchange().expectStatus().isOk();
+    }
+
+    @Test
+    void withoutAPasswordNobodyScrapes() {
+        clientWithScrapePassword("").get().uri("/actuator/prometheus")
+                .headers(headers -> headers.setBasicAuth("prometheus", ""))
+                .exchange().expectStatus().isUnauthorized();
+    }
+
+    private static WebTestClient clientWithScrapePassword(String password) {
+        ReactiveSecurityConfig config = new ReactiveSecurityConfig(null, null, null, null, null, null, null);
+        ReflectionTestUtils.setField(config, "scrapeUsername", "prometheus");
+        ReflectionTestUtils.setField(config, "scrapePassword", password);
+
+        WebFilterChainProxy security = new WebFilterChainProxy(
+                config.actuatorWebFilterChain(ServerHttpSecurity.http(), new BCryptPasswordEncoder(4)));
+        return WebTestClient.bindToWebHandler(exchange -> {
+                    exchange.getResponse().setStatusCode(HttpStatus.OK);
+                    return Mono.empty();
+                })
+                .webFilter(security)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.TransactFlow.TransactFlow.security;
+
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.User;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryUserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserDetailsCacheEvictionTest {
+
+    private static final String ALICE = "alice@example.com";
+
+    private final InMemoryUserRepository userRepository = new InMemoryUserRepository();
+    private final CustomUserDetailsService userDetailsService =
+            new CustomUserDetailsService(userRepository, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+    private final UserDetailsCacheEvictionListener listener = new UserDetailsCacheEvictionListener(userDetailsService);
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail(ALICE);
+        user.setPassword("old-hash");
+        user.setBalance(Money.ZERO);
+        user.setActive(true);
+        userRepository.insert(user);
+    }
+
+    @Test
+    void savedUserIsReloadedWithItsNewPassword() {
+        assertThat(userDetailsService.loadUserByUsername(ALICE).getPassword()).isEqualTo("old-hash");
+
+        User user = userRepository.findByEmail(ALICE).orElseThrow();
+        user.setPassword("new-hash");
+        userRepository.save(user);
+        // Served from the cache until the save event arrives
+        assertThat(userDetailsService.loadUserByUsername(ALICE).getPassword()).isEqualTo("old-hash");
+
+        listener.onAfterSave(new AfterSaveEvent<>(user, new Document(), "users"));
+
+        assertThat(userDetailsService.loadUserByUsername(ALICE).getPassword()).isEqualTo("new-hash");
+    }
+
+    @Test
+    void deleteEvictsEveryCachedUser() {
+        userDetailsService.loadUserByUsername(ALICE);
+        userRepository.deleteAll();
+
+        listener.onAfterDelete(new AfterDeleteEvent<>(new Document("email", ALICE), User.class, "users"));
+
+        assertThat(userDetailsService.getCached(ALICE)).isNull();
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername(ALICE))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+}
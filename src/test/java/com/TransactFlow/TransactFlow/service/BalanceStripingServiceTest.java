@@ -0,0 +1,136 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.User;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryBalanceSlotRepository;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BalanceStripingServiceTest {
+
+    private static final String MERCHANT = "merchant@example.com";
+    private static final String CUSTOMER = "customer@example.com";
+
+    private final InMemoryUserRepository userRepository = new InMemoryUserRepository();
+    private final InMemoryBalanceSlotRepository balanceSlotRepository = new InMemoryBalanceSlotRepository();
+    private final BalanceStripingService striping =
+            new BalanceStripingService(userRepository, balanceSlotRepository, Set.of(MERCHANT), 4);
+
+    @BeforeEach
+    void setUp() {
+        userRepository.insert(user(MERCHANT, Money.ofMinor(1_000)));
+        userRepository.insert(user(CUSTOMER, Money.ofMinor(1_000)));
+    }
+
+    @Test
+    void creditsToStripedAccountsLeaveTheUserDocumentAlone() {
+        striping.creditIfActive(MERCHANT, Money.ofMinor(250));
+        striping.creditIfActive(CUSTOMER, Money.ofMinor(250));
+
+        assertThat(merchant().getBalance()).isEqualTo(Money.ofMinor(1_000));
+        assertThat(striping.balanceOf(merchant())).isEqualTo(Money.ofMinor(1_250));
+        assertThat(userRepository.findByEmail(CUSTOMER).orElseThrow().getBalance()).isEqualTo(Money.ofMinor(1_250));
+    }
+
+    @Test
+    void debitFoldsSlotsWhenTheUserDocumentIsShort() {
+        for (int i = 0; i < 10; i++) {
+            striping.creditIfActive(MERCHANT, Money.ofMinor(100));
+        }
+
+        assertThat(striping.debitIfSufficient(MERCHANT, Money.ofMinor(1_800))).isPresent();
+        assertThat(striping.balanceOf(merchant())).isEqualTo(Money.ofMinor(200));
+        assertThat(striping.debitIfSufficient(MERCHANT, Money.ofMinor(201))).isEmpty();
+    }
+
+    @Test
+    void stripedAccountStopsTakingCreditsOnceCompactionSeesItDeactivated() {
+        assertThat(striping.creditIfActive(MERCHANT, Money.ofMinor(100))).isTrue();
+
+        User merchant = merchant();
+        merchant.setActive(false);
+        userRepository.save(merchant);
+        striping.compact();
+
+        assertThat(striping.creditIfActive(MERCHANT, Money.ofMinor(100))).isFalse();
+        assertThat(balanceSlotRepository.findByAccountEmail(MERCHANT))
+                .hasSize(4)
+                .allSatisfy(slot -> assertThat(slot.getActive()).isFalse());
+        assertThat(striping.balanceOf(merchant())).isEqualTo(Money.ofMinor(1_100));
+
+        merchant = merchant();
+        merchant.setActive(true);
+        userRepository.save(merchant);
+
+        // A stale inactive copy is refreshed from the user on the first miss, without waiting for compaction
+        assertThat(striping.creditIfActive(MERCHANT, Money.ofMinor(100))).isTrue();
+        assertThat(striping.balanceOf(merchant())).isEqualTo(Money.ofMinor(1_200));
+    }
+
+    @Test
+    void reverseCreditNeverTakesMoreThanTheReceiverHolds() {
+        assertThat(striping.reverseCredit(CUSTOMER, Money.ofMinor(1_500))).isFalse();
+        assertThat(userRepository.findByEmail(CUSTOMER).orElseThrow().getBalance()).isEqualTo(Money.ofMinor(1_000));
+
+        // The user document alone is short; the slots make up the rest
+        striping.creditIfActive(MERCHANT, Money.ofMinor(500));
+        assertThat(striping.reverseCredit(MERCHANT, Money.ofMinor(1_200))).isTrue();
+        assertThat(striping.balanceOf(merchant())).isEqualTo(Money.ofMinor(300));
+    }
+
+    @Test
+    void compactionRacingCreditsConservesMoney() throws InterruptedException {
+        int threads = 8;
+        int creditsPerThread = 2_000;
+        ExecutorService clients = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < threads; t++) {
+            clients.submit(() -> {
+                start.await();
+                for (int i = 0; i < creditsPerThread; i++) {
+                    striping.creditIfActive(MERCHANT, Money.ofMinor(1));
+                }
+                return null;
+            });
+        }
+        clients.submit(() -> {
+            start.await();
+            for (int i = 0; i < 200; i++) {
+                striping.compact();
+            }
+            return null;
+        });
+
+        start.countDown();
+        clients.shutdown();
+        assertThat(clients.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        Money expected = Money.ofMinor(1_000 + (long) threads * creditsPerThread);
+        assertThat(striping.balanceOf(merchant())).isEqualTo(expected);
+
+        striping.compact();
+        assertThat(merchant().getBalance()).isEqualTo(expected);
+    }
+
+    private User merchant() {
+        return userRepository.findByEmail(MERCHANT).orElseThrow();
+    }
+
+    private static User user(String email, Money balance) {
+        User user = new User();
+        user.setEmail(email);
+        user.setBalance(balance);
+        user.setActive(true);
+        return user;
+    }
+}
@@ -0,0 +1,31 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.TransactionStatus;
+import com.TransactFlow.TransactFlow.dtos.TransactionHistoryDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoryCsvTest {
+
+    @Test
+    void formulaLikeTextIsNeutralizedButNumbersAreNot() {
+        TransactionHistoryDto dto = TransactionHistoryDto.builder()
+                .transactionId("t1")
+                .referenceNumber("REF1")
+                .otherParty("@evil.example.com")
+                .amount(new BigDecimal("-25.00"))
+                .description("=HYPERLINK(\"http://evil\",\"click\")")
+                .status(TransactionStatus.SUCCESS)
+                .balanceBefore(new BigDecimal("100.00"))
+                .balanceAfter(new BigDecimal("75.00"))
+                .timestamp(LocalDateTime.of(2026, 1, 2, 3, 4, 5))
+                .build();
+
+        assertThat(HistoryCsv.row(dto)).isEqualTo(
+                "t1,REF1,'@evil.example.com,-25.00,\"'=HYPERLINK(\"\"http://evil\"\",\"\"click\"\")\",SUCCESS,100.00,75.00,2026-01-02T03:04:05\n");
+    }
+}
@@ -0,0 +1,101 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.LedgerDirection;
+import com.TransactFlow.TransactFlow.data.model.LedgerEntry;
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.TransactionStatus;
+import com.TransactFlow.TransactFlow.dtos.TransactionHistoryDto;
+import com.TransactFlow.TransactFlow.dtos.TransactionPageDto;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HistoryPagingTest {
+
+    private static final String ALICE = "alice@example.com";
+    private static final String BOB = "bob@example.com";
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private final TransactionServiceFixture fixture = TransactionServiceFixture.builder().build();
+    private final List<LedgerEntry> entries = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Four entries share a timestamp, so only the transaction id orders them
+        for (int i = 0; i < 7; i++) {
+            LocalDateTime createdAt = i < 4 ? NOON : NOON.minusMinutes(i);
+            entries.add(entry(i % 2 == 0 ? LedgerDirection.DEBIT : LedgerDirection.CREDIT, createdAt));
+        }
+        fixture.ledgerEntryRepository.insert(entries);
+        LedgerEntry bobs = entry(LedgerDirection.DEBIT, NOON);
+        bobs.setAccountEmail(BOB);
+        fixture.ledgerEntryRepository.insert(bobs);
+    }
+
+    @Test
+    void pagesCoverTheHistoryOnceEvenWhenTimestampsTie() {
+        List<String> seen = walk(cursor -> fixture.transactionService.getTransactionHistory(ALICE, cursor, 3));
+
+        assertThat(seen).containsExactlyElementsOf(newestFirst(entries));
+    }
+
+    @Test
+    void sentPagesOnlyWalkDebits() {
+        List<String> seen = walk(cursor -> fixture.transactionService.getSentTransactions(ALICE, cursor, 2));
+
+        assertThat(seen).containsExactlyElementsOf(newestFirst(entries.stream()
+                .filter(entry -> entry.getDirection() == LedgerDirection.DEBIT)
+                .toList()));
+    }
+
+    @Test
+    void cursorRoundTripsAndRejectsGarbage() {
+        HistoryCursor cursor = new HistoryCursor(NOON, new ObjectId());
+
+        assertThat(HistoryCursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThat(HistoryCursor.decode(null)).isNull();
+        assertThatThrownBy(() -> HistoryCursor.decode("not-a-cursor")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Follows nextCursor to the end, returning the transaction ids in the order they were served
+    private static List<String> walk(Function<String, TransactionPageDto> fetch) {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPageDto page = fetch.apply(cursor);
+            page.getItems().stream().map(TransactionHistoryDto::getTransactionId).forEach(seen::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    private static List<String> newestFirst(List<LedgerEntry> entries) {
+        return entries.stream()
+                .sorted(Comparator.comparing(LedgerEntry::getCreatedAt).thenComparing(LedgerEntry::getTransactionId).reversed())
+                .map(LedgerEntry::getTransactionId)
+                .toList();
+    }
+
+    private static LedgerEntry entry(LedgerDirection direction, LocalDateTime createdAt) {
+        String transactionId = new ObjectId().toHexString();
+        return LedgerEntry.builder()
+                .id(LedgerEntry.id(transactionId, direction))
+                .transactionId(transactionId)
+                .accountEmail(ALICE)
+                .direction(direction)
+                .counterpartyEmail(BOB)
+                .amount(Money.ofMinor(100))
+                .status(TransactionStatus.SUCCESS)
+                .createdAt(createdAt)
+                .build();
+    }
+}
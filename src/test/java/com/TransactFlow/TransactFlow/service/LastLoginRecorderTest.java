@@ -0,0 +1,89 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.User;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryUserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LastLoginRecorderTest {
+
+    private static final String ALICE = "alice@example.com";
+    private static final String BOB = "bob@example.com";
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private final List<Map<String, LocalDateTime>> flushes = new ArrayList<>();
+    private boolean failNextFlush;
+
+    // Records every bulk it is handed, and fails one when asked
+    private final InMemoryUserRepository userRepository = new InMemoryUserRepository() {
+        @Override
+        public void touchAll(Map<String, LocalDateTime> updateDates) {
+            flushes.add(Map.copyOf(updateDates));
+            if (failNextFlush) {
+                failNextFlush = false;
+                throw new IllegalStateException("write failed");
+            }
+            super.touchAll(updateDates);
+        }
+    };
+
+    private final LastLoginRecorder recorder = new LastLoginRecorder(userRepository, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        addUser(ALICE);
+        addUser(BOB);
+    }
+
+    @Test
+    void loginsBetweenFlushesCoalesceIntoOneUpdatePerAccount() {
+        recorder.record(ALICE, NOON);
+        recorder.record(ALICE, NOON.plusMinutes(5));
+        recorder.record(ALICE, NOON.plusMinutes(1));
+        recorder.record(BOB, NOON);
+
+        recorder.flush();
+        recorder.flush();
+
+        assertThat(flushes).containsExactly(Map.of(ALICE, NOON.plusMinutes(5), BOB, NOON));
+        assertThat(updateDateOf(ALICE)).isEqualTo(NOON.plusMinutes(5));
+        assertThat(updateDateOf(BOB)).isEqualTo(NOON);
+    }
+
+    @Test
+    void failedFlushIsRetriedOnTheNext() {
+        recorder.record(ALICE, NOON);
+        failNextFlush = true;
+
+        recorder.flush();
+        assertThat(updateDateOf(ALICE)).isNull();
+
+        // A login landing before the retry still coalesces with the re-queued one
+        recorder.record(ALICE, NOON.plusMinutes(1));
+        recorder.flush();
+
+        assertThat(flushes).containsExactly(Map.of(ALICE, NOON), Map.of(ALICE, NOON.plusMinutes(1)));
+        assertThat(updateDateOf(ALICE)).isEqualTo(NOON.plusMinutes(1));
+    }
+
+    private void addUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setBalance(Money.ZERO);
+        user.setActive(true);
+        userRepository.insert(user);
+    }
+
+    private LocalDateTime updateDateOf(String email) {
+        return userRepository.findByEmail(email).orElseThrow().getUpdateDate();
+    }
+}
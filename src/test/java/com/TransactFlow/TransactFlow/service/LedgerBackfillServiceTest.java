@@ -0,0 +1,98 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.LedgerDirection;
+import com.TransactFlow.TransactFlow.data.model.LedgerEntry;
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryLedgerEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.TransactFlow.TransactFlow.service.TransactionServiceFixture.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerBackfillServiceTest {
+
+    private static final String SENDER = "sender@example.com";
+    private static final String RECEIVER = "receiver@example.com";
+
+    // Entry writes to fail like a Mongo timeout before they start landing again
+    private final AtomicInteger failingWrites = new AtomicInteger();
+
+    private final InMemoryLedgerEntryRepository ledgerEntryRepository = new InMemoryLedgerEntryRepository() {
+        @Override
+        public <S extends LedgerEntry> S insert(S entity) {
+            if (failingWrites.getAndDecrement() > 0) {
+                throw new DataAccessResourceFailureException("Timed out waiting for the server");
+            }
+            return super.insert(entity);
+        }
+    };
+
+    private final TransactionServiceFixture fixture = TransactionServiceFixture.builder()
+            .ledgerEntryRepository(ledgerEntryRepository)
+            .build();
+    private final LedgerBackfillService ledgerBackfillService =
+            new LedgerBackfillService(fixture.transactionRepository, ledgerEntryRepository);
+
+    @BeforeEach
+    void setUp() {
+        fixture.addUser(SENDER, Money.ofMinor(10_000));
+        fixture.addUser(RECEIVER, Money.ZERO);
+        // The transfers below are only milliseconds old
+        ReflectionTestUtils.setField(ledgerBackfillService, "repairMinAge", Duration.ZERO);
+    }
+
+    @Test
+    void failedEntryWriteIsRetriedWithTheTransfer() {
+        failingWrites.set(1);
+
+        String transactionId = fixture.transactionService.transferMoney(SENDER, transfer(RECEIVER, "10.00")).getTransactionId();
+
+        assertThat(ledgerEntryRepository.findById(LedgerEntry.id(transactionId, LedgerDirection.DEBIT))).isPresent();
+        assertThat(ledgerEntryRepository.findById(LedgerEntry.id(transactionId, LedgerDirection.CREDIT))).isPresent();
+    }
+
+    @Test
+    void entriesTheTransferGaveUpOnAreWrittenByTheRepair() {
+        failingWrites.set(Integer.MAX_VALUE);
+        String transactionId = fixture.transactionService.transferMoney(SENDER, transfer(RECEIVER, "10.00")).getTransactionId();
+        assertThat(ledgerEntryRepository.count()).isZero();
+
+        // Still down: the flag stays for the next run
+        ledgerBackfillService.repairPending();
+        assertThat(fixture.transactionRepository.findById(transactionId).orElseThrow().getLedgerPending()).isTrue();
+
+        failingWrites.set(0);
+        ledgerBackfillService.repairPending();
+
+        assertThat(ledgerEntryRepository.count()).isEqualTo(2);
+        assertThat(fixture.transactionRepository.findById(transactionId).orElseThrow().getLedgerPending()).isNull();
+    }
+
+    @Test
+    void repairOnlyClearsTheFlagWhenEntriesAlreadyExist() {
+        fixture.transactionService.transferMoney(SENDER, transfer(RECEIVER, "10.00"));
+        fixture.transactionService.transferMoney(SENDER, transfer(RECEIVER, "20.00"));
+
+        assertThat(ledgerBackfillService.repairBatch()).isFalse();
+
+        assertThat(ledgerEntryRepository.count()).isEqualTo(4);
+        assertThat(fixture.transactionRepository.findAll()).allSatisfy(
+                transaction -> assertThat(transaction.getLedgerPending()).isNull());
+    }
+
+    @Test
+    void backfillWritesOnlyTheMissingEntries() {
+        String transactionId = fixture.transactionService.transferMoney(SENDER, transfer(RECEIVER, "10.00")).getTransactionId();
+        ledgerEntryRepository.deleteById(LedgerEntry.id(transactionId, LedgerDirection.CREDIT));
+
+        assertThat(ledgerBackfillService.backfill()).isEqualTo(1);
+        assertThat(ledgerBackfillService.backfill()).isZero();
+        assertThat(ledgerEntryRepository.count()).isEqualTo(2);
+    }
+}
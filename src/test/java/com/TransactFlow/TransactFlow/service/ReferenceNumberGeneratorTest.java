@@ -0,0 +1,59 @@
+package com.TransactFlow.TransactFlow.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferenceNumberGeneratorTest {
+
+    @Test
+    void issuesUniqueReferencesAcrossThreads() throws Exception {
+        ReferenceNumberGenerator generator = new ReferenceNumberGenerator(7);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+
+        List<Future<List<String>>> batches = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            batches.add(threads.submit(() -> {
+                List<String> references = new ArrayList<>();
+                for (int i = 0; i < 50_000; i++) {
+                    references.add(generator.next());
+                }
+                return references;
+            }));
+        }
+
+        Set<String> unique = new HashSet<>();
+        for (Future<List<String>> batch : batches) {
+            List<String> references = batch.get();
+            // Each thread sees its own references in strictly increasing order
+            assertThat(references).isSorted().doesNotHaveDuplicates();
+            unique.addAll(references);
+        }
+        threads.shutdown();
+
+        assertThat(unique).hasSize(8 * 50_000);
+        assertThat(unique).allMatch(reference -> reference.matches("TXN[0-9A-F]{16}"));
+    }
+
+    @Test
+    void differentNodesNeverCollide() {
+        ReferenceNumberGenerator nodeOne = new ReferenceNumberGenerator(1);
+        ReferenceNumberGenerator nodeTwo = new ReferenceNumberGenerator(2);
+
+        Set<String> references = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            references.add(nodeOne.next());
+            references.add(nodeTwo.next());
+        }
+
+        assertThat(references).hasSize(200_000);
+    }
+}
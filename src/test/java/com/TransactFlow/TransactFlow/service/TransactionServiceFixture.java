@@ -0,0 +1,126 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.User;
+import com.TransactFlow.TransactFlow.dtos.request.TransferRequestDto;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryBalanceSlotRepository;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryIdempotencyRecordRepository;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryLedgerEntryRepository;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryTransactionRepository;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryTransferAggregateRepository;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryUserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Set;
+
+// A TransactionService wired to the in-memory repositories, the way the inmemory profile wires it. Tests swap in a
+// subclassed repository to inject failures, and read balances and records back through the same repositories.
+final class TransactionServiceFixture {
+
+    final InMemoryTransactionRepository transactionRepository;
+    final InMemoryLedgerEntryRepository ledgerEntryRepository;
+    final InMemoryUserRepository userRepository;
+    final InMemoryIdempotencyRecordRepository idempotencyRecordRepository;
+    final BalanceStripingService balanceStripingService;
+    final WalletBalanceCache walletBalanceCache;
+    final TransactionService transactionService;
+
+    private TransactionServiceFixture(Builder builder) {
+        this.transactionRepository = builder.transactionRepository;
+        this.ledgerEntryRepository = builder.ledgerEntryRepository;
+        this.userRepository = builder.userRepository;
+        this.idempotencyRecordRepository = builder.idempotencyRecordRepository;
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TransferMetrics transferMetrics = new TransferMetrics(meterRegistry);
+        this.balanceStripingService = new BalanceStripingService(
+                userRepository, new InMemoryBalanceSlotRepository(), builder.stripedAccounts, 1);
+        this.walletBalanceCache = new WalletBalanceCache(100, Duration.ofMinutes(1), meterRegistry);
+
+        this.transactionService = new TransactionService(
+                transactionRepository,
+                ledgerEntryRepository,
+                userRepository,
+                new TransferEngine(builder.engineEnabled, 2),
+                new ObjectMapper(),
+                walletBalanceCache,
+                new IdempotencyService(idempotencyRecordRepository, transactionRepository,
+                        100, Duration.ofMinutes(10), Duration.ofSeconds(1)),
+                new ReferenceNumberGenerator(1),
+                transferMetrics,
+                new TransferAggregateService(new InMemoryTransferAggregateRepository(transactionRepository), transferMetrics, 3660),
+                balanceStripingService);
+        ReflectionTestUtils.setField(transactionService, "maxBatchSize", builder.maxBatchSize);
+        ReflectionTestUtils.setField(transactionService, "maxPageSize", builder.maxPageSize);
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    User addUser(String email, Money balance) {
+        User user = new User();
+        user.setEmail(email);
+        user.setBalance(balance);
+        user.setActive(true);
+        return userRepository.insert(user);
+    }
+
+    Money balanceOf(String email) {
+        return userRepository.findByEmail(email).orElseThrow().getBalance();
+    }
+
+    static TransferRequestDto transfer(String receiverEmail, String amount) {
+        TransferRequestDto request = new TransferRequestDto();
+        request.setReceiverEmail(receiverEmail);
+        request.setAmount(new BigDecimal(amount));
+        request.setDescription("test");
+        return request;
+    }
+
+    static final class Builder {
+
+        private InMemoryTransactionRepository transactionRepository = new InMemoryTransactionRepository();
+        private InMemoryLedgerEntryRepository ledgerEntryRepository = new InMemoryLedgerEntryRepository();
+        private InMemoryUserRepository userRepository = new InMemoryUserRepository();
+        private InMemoryIdempotencyRecordRepository idempotencyRecordRepository = new InMemoryIdempotencyRecordRepository();
+        private Set<String> stripedAccounts = Set.of();
+        private boolean engineEnabled = true;
+        private int maxBatchSize = 10;
+        private int maxPageSize = 100;
+
+        Builder transactionRepository(InMemoryTransactionRepository transactionRepository) {
+            this.transactionRepository = transactionRepository;
+            return this;
+        }
+
+        Builder ledgerEntryRepository(InMemoryLedgerEntryRepository ledgerEntryRepository) {
+            this.ledgerEntryRepository = ledgerEntryRepository;
+            return this;
+        }
+
+        Builder userRepository(InMemoryUserRepository userRepository) {
+            this.userRepository = userRepository;
+            return this;
+        }
+
+        Builder idempotencyRecordRepository(InMemoryIdempotencyRecordRepository idempotencyRecordRepository) {
+            this.idempotencyRecordRepository = idempotencyRecordRepository;
+            return this;
+        }
+
+        // Without the engine's account locks, only the guarded updates keep concurrent transfers consistent
+        Builder engineEnabled(boolean engineEnabled) {
+            this.engineEnabled = engineEnabled;
+            return this;
+        }
+
+        TransactionServiceFixture build() {
+            return new TransactionServiceFixture(this);
+        }
+    }
+}
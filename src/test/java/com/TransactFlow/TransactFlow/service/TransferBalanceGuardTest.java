@@ -0,0 +1,102 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.User;
+import com.TransactFlow.TransactFlow.exceptions.InsufficientBalanceException;
+import com.TransactFlow.TransactFlow.exceptions.InvalidTransactionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.TransactFlow.TransactFlow.service.TransactionServiceFixture.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransferBalanceGuardTest {
+
+    private static final String SENDER = "sender@example.com";
+    private static final String ALICE = "alice@example.com";
+    private static final String BOB = "bob@example.com";
+
+    private final TransactionServiceFixture fixture = TransactionServiceFixture.builder()
+            .engineEnabled(false)
+            .build();
+    private final TransactionService transactionService = fixture.transactionService;
+
+    @BeforeEach
+    void setUp() {
+        fixture.addUser(SENDER, Money.ofMinor(1_000));
+        fixture.addUser(ALICE, Money.ZERO);
+        fixture.addUser(BOB, Money.ZERO);
+    }
+
+    @Test
+    void concurrentTransfersNeverOverdrawTheSender() throws Exception {
+        int threads = 8;
+        int transfersPerThread = 10;
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> succeeded = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            String receiver = t % 2 == 0 ? ALICE : BOB;
+            succeeded.add(clients.submit(() -> {
+                start.await();
+                int count = 0;
+                for (int i = 0; i < transfersPerThread; i++) {
+                    try {
+                        transactionService.transferMoney(SENDER, transfer(receiver, "1.00"));
+                        count++;
+                    } catch (InsufficientBalanceException e) {
+                        // Expected once the 10.00 is spent
+                    }
+                }
+                return count;
+            }));
+        }
+
+        start.countDown();
+        clients.shutdown();
+        assertThat(clients.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        int total = 0;
+        for (Future<Integer> count : succeeded) {
+            total += count.get();
+        }
+        assertThat(total).isEqualTo(10);
+        assertThat(fixture.balanceOf(SENDER)).isEqualTo(Money.ZERO);
+        assertThat(fixture.balanceOf(ALICE).plus(fixture.balanceOf(BOB))).isEqualTo(Money.ofMinor(1_000));
+        assertThat(fixture.transactionRepository.count()).isEqualTo(10);
+    }
+
+    @Test
+    void insufficientBalanceMovesNothing() {
+        assertThatThrownBy(() -> transactionService.transferMoney(SENDER, transfer(ALICE, "10.01")))
+                .isInstanceOf(InsufficientBalanceException.class);
+
+        assertThat(fixture.balanceOf(SENDER)).isEqualTo(Money.ofMinor(1_000));
+        assertThat(fixture.balanceOf(ALICE)).isEqualTo(Money.ZERO);
+        assertThat(fixture.transactionRepository.count()).isZero();
+    }
+
+    @Test
+    void inactiveReceiverIsRejectedAndTheSenderRefunded() {
+        User bob = fixture.userRepository.findByEmail(BOB).orElseThrow();
+        bob.setActive(false);
+        fixture.userRepository.save(bob);
+
+        assertThatThrownBy(() -> transactionService.transferMoney(SENDER, transfer(BOB, "5.00")))
+                .isInstanceOf(InvalidTransactionException.class);
+
+        assertThat(fixture.balanceOf(SENDER)).isEqualTo(Money.ofMinor(1_000));
+        assertThat(fixture.balanceOf(BOB)).isEqualTo(Money.ZERO);
+        assertThat(fixture.transactionRepository.count()).isZero();
+    }
+}
@@ -0,0 +1,146 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.data.model.TransactionStatus;
+import com.TransactFlow.TransactFlow.data.model.User;
+import com.TransactFlow.TransactFlow.dtos.response.BatchTransferItemDto;
+import com.TransactFlow.TransactFlow.dtos.response.BatchTransferResponseDto;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryTransactionRepository;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.TransactFlow.TransactFlow.service.TransactionServiceFixture.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TransferBatchTest {
+
+    private static final String SENDER = "sender@example.com";
+    private static final String ALICE = "alice@example.com";
+    private static final String BOB = "bob@example.com";
+
+    // Number of inserts to let through before failing like a Mongo timeout; negative never fails
+    private final AtomicInteger insertsBeforeFailure = new AtomicInteger(-1);
+    // Reference collisions to simulate, as when two nodes share transfer.reference.node-id
+    private final AtomicInteger duplicateReferences = new AtomicInteger();
+    private volatile String deactivateAfterRead;
+
+    private final InMemoryTransactionRepository transactionRepository = new InMemoryTransactionRepository() {
+        @Override
+        public <S extends Transaction> S insert(S entity) {
+            if (insertsBeforeFailure.getAndDecrement() == 0) {
+                throw new DataAccessResourceFailureException("Timed out waiting for the server");
+            }
+            if (duplicateReferences.getAndDecrement() > 0) {
+                throw new DuplicateKeyException("E11000 duplicate key error: referenceNumber");
+            }
+            return super.insert(entity);
+        }
+    };
+
+    // Deactivates a receiver right after the batch has read it as active
+    private final InMemoryUserRepository userRepository = new InMemoryUserRepository() {
+        @Override
+        public List<User> findByEmailIn(Collection<String> emails) {
+            List<User> users = super.findByEmailIn(emails);
+            if (deactivateAfterRead != null) {
+                User user = findByEmail(deactivateAfterRead).orElseThrow();
+                user.setActive(false);
+                save(user);
+            }
+            return users;
+        }
+    };
+
+    private final TransactionServiceFixture fixture = TransactionServiceFixture.builder()
+            .transactionRepository(transactionRepository)
+            .userRepository(userRepository)
+            .build();
+    private final TransactionService transactionService = fixture.transactionService;
+
+    @BeforeEach
+    void setUp() {
+        fixture.addUser(SENDER, Money.ofMinor(10_000));
+        fixture.addUser(ALICE, Money.ZERO);
+        fixture.addUser(BOB, Money.ZERO);
+    }
+
+    @Test
+    void receiverDeactivatedAfterTheReadIsRefundedToTheSender() {
+        deactivateAfterRead = BOB;
+
+        BatchTransferResponseDto response = transactionService.transferBatch(SENDER,
+                List.of(transfer(ALICE, "10.00"), transfer(BOB, "20.00"), transfer(BOB, "5.00")));
+
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getTotalDebited()).isEqualByComparingTo("10.00");
+        assertThat(response.getResults()).extracting(BatchTransferItemDto::getStatus)
+                .containsExactly(TransactionStatus.SUCCESS, TransactionStatus.FAILED, TransactionStatus.FAILED);
+        assertThat(fixture.balanceOf(SENDER)).isEqualTo(Money.ofMinor(9_000));
+        assertThat(fixture.balanceOf(BOB)).isEqualTo(Money.ZERO);
+        assertThat(transactionRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void onlyTheSenderGetsBalanceSnapshots() {
+        transactionService.transferBatch(SENDER, List.of(transfer(ALICE, "10.00"), transfer(ALICE, "20.00")));
+
+        assertThat(transactionRepository.findAll())
+                .extracting(Transaction::getSenderBalanceBefore, Transaction::getSenderBalanceAfter,
+                        Transaction::getReceiverBalanceBefore, Transaction::getReceiverBalanceAfter)
+                .containsExactlyInAnyOrder(
+                        tuple(Money.ofMinor(10_000), Money.ofMinor(9_000), null, null),
+                        tuple(Money.ofMinor(9_000), Money.ofMinor(7_000), null, null));
+    }
+
+    @Test
+    void failedRecordWriteUndoesTheWholeBatch() {
+        insertsBeforeFailure.set(1);
+
+        BatchTransferResponseDto response = transactionService.transferBatch(SENDER,
+                List.of(transfer(ALICE, "10.00"), transfer(BOB, "20.00")));
+
+        assertThat(response.getSucceeded()).isZero();
+        assertThat(response.getTotalDebited()).isEqualByComparingTo("0.00");
+        assertThat(response.getNewBalance()).isEqualByComparingTo("100.00");
+        assertThat(fixture.balanceOf(SENDER)).isEqualTo(Money.ofMinor(10_000));
+        assertThat(fixture.balanceOf(ALICE)).isEqualTo(Money.ZERO);
+        assertThat(fixture.balanceOf(BOB)).isEqualTo(Money.ZERO);
+        assertThat(transactionRepository.count()).isZero();
+    }
+
+    @Test
+    void referenceCollisionsAreRetriedWithFreshReferences() {
+        duplicateReferences.set(2);
+
+        BatchTransferResponseDto response = transactionService.transferBatch(SENDER,
+                List.of(transfer(ALICE, "10.00"), transfer(BOB, "20.00")));
+
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        assertThat(transactionRepository.count()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(BatchTransferItemDto::getReferenceNumber).doesNotHaveDuplicates();
+        assertThat(fixture.balanceOf(SENDER)).isEqualTo(Money.ofMinor(7_000));
+    }
+
+    @Test
+    void referenceThatKeepsCollidingUndoesTheBatch() {
+        duplicateReferences.set(Integer.MAX_VALUE);
+
+        BatchTransferResponseDto response = transactionService.transferBatch(SENDER,
+                List.of(transfer(ALICE, "10.00"), transfer(BOB, "20.00")));
+
+        assertThat(response.getSucceeded()).isZero();
+        assertThat(fixture.balanceOf(SENDER)).isEqualTo(Money.ofMinor(10_000));
+        assertThat(fixture.balanceOf(ALICE)).isEqualTo(Money.ZERO);
+        assertThat(fixture.balanceOf(BOB)).isEqualTo(Money.ZERO);
+        assertThat(transactionRepository.count()).isZero();
+    }
+}
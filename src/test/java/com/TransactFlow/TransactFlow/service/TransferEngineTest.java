@@ -0,0 +1,87 @@
+package com.TransactFlow.TransactFlow.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransferEngineTest {
+
+    private static final int ACCOUNTS = 20;
+    private static final long INITIAL_BALANCE = 1_000;
+
+    private final TransferEngine engine = new TransferEngine(true, 4);
+
+    @Test
+    void conservesMoneyUnderConcurrentTransfers() throws InterruptedException {
+        // The map itself is thread-safe, but only the engine's per-account ordering keeps these read-modify-writes safe
+        Map<String, Long> balances = new ConcurrentHashMap<>();
+        List<String> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String email = "user" + i + "@example.com";
+            accounts.add(email);
+            balances.put(email, INITIAL_BALANCE);
+        }
+
+        int threads = 32;
+        int transfersPerThread = 2_000;
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+
+        for (int t = 0; t < threads; t++) {
+            clients.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < transfersPerThread; i++) {
+                    String sender = accounts.get(random.nextInt(ACCOUNTS));
+                    String receiver = accounts.get(random.nextInt(ACCOUNTS));
+                    if (sender.equals(receiver)) {
+                        continue;
+                    }
+                    long amount = random.nextLong(1, 200);
+                    boolean applied = engine.execute(sender, receiver, () -> {
+                        long senderBalance = balances.get(sender);
+                        if (senderBalance < amount) {
+                            return false;
+                        }
+                        balances.put(sender, senderBalance - amount);
+                        balances.put(receiver, balances.get(receiver) + amount);
+                        return true;
+                    });
+                    if (!applied) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        clients.shutdown();
+        assertThat(clients.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        long total = balances.values().stream().mapToLong(Long::longValue).sum();
+
+        assertThat(total).isEqualTo(ACCOUNTS * INITIAL_BALANCE);
+        assertThat(balances.values()).allMatch(balance -> balance >= 0);
+    }
+
+    @Test
+    void propagatesExceptionsFromWork() {
+        assertThatThrownBy(() -> engine.execute("a@example.com", "b@example.com", () -> {
+            throw new IllegalArgumentException("boom");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessage("boom");
+    }
+}
@@ -0,0 +1,157 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.IdempotencyRecord;
+import com.TransactFlow.TransactFlow.data.model.IdempotencyStatus;
+import com.TransactFlow.TransactFlow.data.model.Money;
+import com.TransactFlow.TransactFlow.data.model.Transaction;
+import com.TransactFlow.TransactFlow.dtos.request.TransferRequestDto;
+import com.TransactFlow.TransactFlow.dtos.response.TransferResponseDto;
+import com.TransactFlow.TransactFlow.exceptions.InsufficientBalanceException;
+import com.TransactFlow.TransactFlow.exceptions.TransferNotRecordedException;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryIdempotencyRecordRepository;
+import com.TransactFlow.TransactFlow.repository.inmemory.InMemoryTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.TransactFlow.TransactFlow.service.TransactionServiceFixture.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransferIdempotencyTest {
+
+    private static final String SENDER = "sender@example.com";
+    private static final String RECEIVER = "receiver@example.com";
+
+    private final AtomicBoolean failInserts = new AtomicBoolean();
+    private final AtomicBoolean failRecordWrites = new AtomicBoolean();
+
+    // Stands in for a Mongo timeout on the transaction insert, which happens after the debit and credit
+    private final InMemoryTransactionRepository transactionRepository = new InMemoryTransactionRepository() {
+        @Override
+        public <S extends Transaction> S insert(S entity) {
+            if (failInserts.get()) {
+                throw new DataAccessResourceFailureException("Timed out waiting for the server");
+            }
+            return super.insert(entity);
+        }
+    };
+
+    // Stands in for the idempotency_keys collection being unavailable once the key has been claimed
+    private final InMemoryIdempotencyRecordRepository idempotencyRecordRepository = new InMemoryIdempotencyRecordRepository() {
+        @Override
+        public <S extends IdempotencyRecord> S save(S entity) {
+            if (failRecordWrites.get()) {
+                throw new DataAccessResourceFailureException("Timed out waiting for the server");
+            }
+            return super.save(entity);
+        }
+    };
+
+    private final TransactionServiceFixture fixture = TransactionServiceFixture.builder()
+            .transactionRepository(transactionRepository)
+            .idempotencyRecordRepository(idempotencyRecordRepository)
+            .build();
+    private final TransactionService transactionService = fixture.transactionService;
+
+    @BeforeEach
+    void setUp() {
+        fixture.addUser(SENDER, Money.ofMinor(10_000));
+        fixture.addUser(RECEIVER, Money.ZERO);
+    }
+
+    @Test
+    void unrecordableTransferIsUndoneAndItsKeyCanBeRetried() {
+        TransferRequestDto request = transfer(RECEIVER, "25.00");
+
+        failInserts.set(true);
+        assertThatThrownBy(() -> transactionService.transferMoney(SENDER, request, "key-1"))
+                .isInstanceOf(TransferNotRecordedException.class);
+        assertThat(fixture.balanceOf(SENDER)).isEqualTo(Money.ofMinor(10_000));
+        assertThat(fixture.balanceOf(RECEIVER)).isEqualTo(Money.ZERO);
+        assertThat(transactionRepository.count()).isZero();
+
+        failInserts.set(false);
+        TransferResponseDto response = transactionService.transferMoney(SENDER, request, "key-1");
+        assertThat(transactionService.transferMoney(SENDER, request, "key-1").getReferenceNumber())
+                .isEqualTo(response.getReferenceNumber());
+
+        assertThat(fixture.balanceOf(SENDER)).isEqualTo(Money.ofMinor(7_500));
+        assertThat(fixture.balanceOf(RECEIVER)).isEqualTo(Money.ofMinor(2_500));
+        assertThat(transactionRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectionBeforeMoneyMovesReleasesTheKey() {
+        assertThatThrownBy(() -> transactionService.transferMoney(SENDER, transfer(RECEIVER, "500.00"), "key-2"))
+                .isInstanceOf(InsufficientBalanceException.class);
+
+        transactionService.transferMoney(SENDER, transfer(RECEIVER, "50.00"), "key-2");
+
+        assertThat(fixture.balanceOf(SENDER)).isEqualTo(Money.ofMinor(5_000));
+    }
+
+    @Test
+    void keyLeftInProgressIsSettledAgainstTheRecordedTransfer() {
+        TransferRequestDto request = transfer(RECEIVER, "25.00");
+
+        failRecordWrites.set(true);
+        TransferResponseDto response = transactionService.transferMoney(SENDER, request, "key-3");
+        failRecordWrites.set(false);
+        assertThat(idempotencyRecordRepository.findById(SENDER + ":key-3").orElseThrow().getStatus())
+                .isEqualTo(IdempotencyStatus.IN_PROGRESS);
+
+        // Another node waits the stale claim out, then finds the transfer by its key instead of answering 409
+        assertThat(otherNode().transferMoney(SENDER, request, "key-3").getReferenceNumber())
+                .isEqualTo(response.getReferenceNumber());
+
+        assertThat(fixture.balanceOf(SENDER)).isEqualTo(Money.ofMinor(7_500));
+        assertThat(transactionRepository.count()).isEqualTo(1);
+        assertThat(idempotencyRecordRepository.findById(SENDER + ":key-3").orElseThrow().getStatus())
+                .isEqualTo(IdempotencyStatus.COMPLETED);
+    }
+
+    @Test
+    void failedKeyWithNoRecordedTransferRunsAgain() {
+        idempotencyRecordRepository.insert(IdempotencyRecord.builder()
+                .id(SENDER + ":key-4")
+                .status(IdempotencyStatus.FAILED)
+                .error("Timed out waiting for the server")
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        transactionService.transferMoney(SENDER, transfer(RECEIVER, "25.00"), "key-4");
+
+        assertThat(fixture.balanceOf(SENDER)).isEqualTo(Money.ofMinor(7_500));
+        assertThat(transactionRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void keyWhoseRecordIsGoneStillMovesMoneyOnce() {
+        TransferRequestDto request = transfer(RECEIVER, "25.00");
+        TransferResponseDto response = transactionService.transferMoney(SENDER, request, "key-5");
+
+        // As after the record's TTL: only the unique idempotencyKey on the transaction still knows the key
+        idempotencyRecordRepository.deleteAll();
+
+        assertThat(otherNode().transferMoney(SENDER, request, "key-5").getReferenceNumber())
+                .isEqualTo(response.getReferenceNumber());
+        assertThat(fixture.balanceOf(SENDER)).isEqualTo(Money.ofMinor(7_500));
+        assertThat(fixture.balanceOf(RECEIVER)).isEqualTo(Money.ofMinor(2_500));
+        assertThat(transactionRepository.count()).isEqualTo(1);
+    }
+
+    // Same collections, but its own in-flight map and response cache
+    private TransactionService otherNode() {
+        return TransactionServiceFixture.builder()
+                .transactionRepository(transactionRepository)
+                .userRepository(fixture.userRepository)
+                .ledgerEntryRepository(fixture.ledgerEntryRepository)
+                .idempotencyRecordRepository(idempotencyRecordRepository)
+                .build()
+                .transactionService;
+    }
+}
@@ -0,0 +1,58 @@
+package com.TransactFlow.TransactFlow.service;
+
+import com.TransactFlow.TransactFlow.data.model.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.TransactFlow.TransactFlow.service.TransactionServiceFixture.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WalletBalanceCacheTest {
+
+    private static final String ALICE = "alice@example.com";
+    private static final String BOB = "bob@example.com";
+
+    private final WalletBalanceCache cache = new WalletBalanceCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Test
+    void balanceIsLoadedOnceAndThenServedFromTheCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(cache.get(ALICE, email -> {
+                loads.incrementAndGet();
+                return Money.ofMinor(1_000);
+            }).getBalance()).isEqualByComparingTo("10.00");
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    // A transfer that writes through while a read is loading must not be overwritten by the older loaded value
+    @Test
+    void writeThroughDuringALoadWinsOverTheLoadedBalance() {
+        assertThat(cache.get(ALICE, email -> {
+            cache.put(email, Money.ofMinor(750));
+            return Money.ofMinor(1_000);
+        }).getBalance()).isEqualByComparingTo("7.50");
+
+        assertThat(cache.getIfPresent(ALICE).getBalance()).isEqualByComparingTo("7.50");
+    }
+
+    @Test
+    void transferWritesBothNewBalancesThrough() {
+        TransactionServiceFixture fixture = TransactionServiceFixture.builder().build();
+        fixture.addUser(ALICE, Money.ofMinor(1_000));
+        fixture.addUser(BOB, Money.ZERO);
+        fixture.transactionService.getWalletBalance(ALICE);
+        fixture.transactionService.getWalletBalance(BOB);
+
+        fixture.transactionService.transferMoney(ALICE, transfer(BOB, "2.50"));
+
+        assertThat(fixture.walletBalanceCache.getIfPresent(ALICE).getBalance()).isEqualByComparingTo("7.50");
+        assertThat(fixture.walletBalanceCache.getIfPresent(BOB).getBalance()).isEqualByComparingTo("2.50");
+    }
+}